@@ -0,0 +1,49 @@
+/*
+ *  Runs every benchmark of the suite and writes the results as JSON.
+ *  Both the throughput and the average time are measured, and the GC
+ *  profiler adds the allocation rate of every benchmark.
+ *
+ *  The first argument is the file for the results, bench-results.json by
+ *  default. The other arguments are regular expressions of the benchmarks
+ *  to run, all of them by default.
+ *
+ *  The suite is built with bench/pom.xml into target/benchmarks.jar,
+ *  which starts this class.
+ */
+package maze.bench;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+            .mode(Mode.Throughput)
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(2))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(2))
+            .forks(1)
+            .jvmArgsAppend("-Xmx8g")
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(args.length > 0 ? args[0] : "bench-results.json");
+        if (args.length > 1) {
+            for (int i = 1; i < args.length; i++)
+                options.include(args[i]);
+        } else {
+            options.include(BenchmarkMain.class.getPackageName() + ".*Benchmark");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *  Benchmark of joining random pairs of a disjoint set until every
+ *  element is in one set, as PassageTree does with its edges.
+ */
+package maze.bench;
+
+import maze.algo.generation.DisjointSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+@State(Scope.Benchmark)
+public class DisjointSetBenchmark {
+
+    @Param({"101", "1001", "5001"})
+    public int size;
+
+    //Number of elements, as many as passage cells of a square maze
+    private int elements;
+
+    //Random pairs of elements packed as first * elements + second
+    private long[] pairs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var cells = (size - 1) / 2;
+        elements = cells * cells;
+        var random = new SplittableRandom(MazeState.SEED);
+        pairs = new long[2 * elements];
+        for (int i = 0; i < pairs.length; i++)
+            pairs[i] = (long) random.nextInt(elements) * elements + random.nextInt(elements);
+    }
+
+    @Benchmark
+    public int unionFind() {
+        var disjointSet = new DisjointSet(elements);
+        for (var pair : pairs) {
+            disjointSet.union((int) (pair / elements), (int) (pair % elements));
+            if (disjointSet.getSize() == 1)
+                break;
+        }
+        return disjointSet.find(0);
+    }
+}
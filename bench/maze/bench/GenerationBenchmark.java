@@ -0,0 +1,24 @@
+/*
+ *  Benchmarks of building a new maze and of its passage tree alone.
+ */
+package maze.bench;
+
+import maze.algo.generation.PassageTree;
+import maze.model.Maze;
+import maze.model.PackedGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class GenerationBenchmark {
+
+    @Benchmark
+    public Maze newMaze(MazeState state) {
+        return new Maze(state.height, state.width, MazeState.SEED);
+    }
+
+    @Benchmark
+    public PackedGrid passageTree(MazeState state) {
+        var grid = new PackedGrid(state.height, state.width);
+        new PassageTree(state.height, state.width, MazeState.SEED).generate(grid);
+        return grid;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  Benchmarks of saving, loading and drawing a maze.
+ */
+package maze.bench;
+
+import maze.io.BinaryFormat;
+import maze.model.Maze;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@State(Scope.Benchmark)
+public class IoBenchmark {
+
+    //Text form of the maze of the trial
+    private String text;
+
+    //File with the binary form of the maze of the trial
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp(MazeState state) throws IOException {
+        text = state.maze.export();
+        file = Files.createTempFile("maze", ".mzb");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String export(MazeState state) {
+        return state.maze.export();
+    }
+
+    @Benchmark
+    public Maze load() {
+        return Maze.load(text);
+    }
+
+    @Benchmark
+    public Maze textRoundTrip(MazeState state) {
+        return Maze.load(state.maze.export());
+    }
+
+    @Benchmark
+    public Maze binaryRoundTrip(MazeState state) throws IOException {
+        BinaryFormat.write(state.maze, file);
+        return BinaryFormat.load(file);
+    }
+
+    @Benchmark
+    public String render(MazeState state) {
+        return state.maze.toString();
+    }
+}
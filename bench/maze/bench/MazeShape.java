@@ -0,0 +1,20 @@
+/*
+ *  Sizes of the mazes used by the benchmarks. A square maze has the given
+ *  size on both sides, a wide maze has about as many cells in 11 rows.
+ */
+package maze.bench;
+
+public enum MazeShape {
+    SQUARE,
+    WIDE;
+
+    //Return the height of the maze for the size
+    public int height(int size) {
+        return this == SQUARE ? size : 11;
+    }
+
+    //Return the width of the maze for the size, always odd
+    public int width(int size) {
+        return this == SQUARE ? size : (int) ((long) size * size / 11) | 1;
+    }
+}
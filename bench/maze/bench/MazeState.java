@@ -0,0 +1,47 @@
+/*
+ *  This class holds a maze shared by the benchmarks of one trial. The maze
+ *  is generated from a fixed seed, so every run measures the same maze.
+ */
+package maze.bench;
+
+import maze.model.Maze;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class MazeState {
+
+    //Seed of every maze and every random input of the benchmarks
+    public static final long SEED = 20230607L;
+
+    @Param({"101", "1001", "5001"})
+    public int size;
+
+    @Param({"SQUARE", "WIDE"})
+    public MazeShape shape;
+
+    public int height;
+
+    public int width;
+
+    //Maze generated from the seed
+    public Maze maze;
+
+    //Index of the entrance cell, row * width + column
+    public int entrance;
+
+    //Index of the exit cell, row * width + column
+    public int exit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        height = shape.height(size);
+        width = shape.width(size);
+        maze = new Maze(height, width, SEED);
+        entrance = 1;
+        exit = (height - 1) * width + width - 3 + width % 2;
+    }
+}
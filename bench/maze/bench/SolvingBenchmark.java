@@ -0,0 +1,23 @@
+/*
+ *  Benchmark of finding the escape from the entrance to the exit.
+ */
+package maze.bench;
+
+import maze.algo.solving.Fugitive;
+import maze.algo.solving.JumpPointSearch;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class SolvingBenchmark {
+
+    @Benchmark
+    public int[] fugitive(MazeState state) {
+        return new Fugitive(state.maze.getGrid(), state.entrance, state.exit)
+            .findEscape();
+    }
+
+    @Benchmark
+    public int[] jumpPointSearch(MazeState state) {
+        return new JumpPointSearch(state.maze.getGrid(), state.entrance, state.exit)
+            .findEscape();
+    }
+}
@@ -1,9 +1,32 @@
 package maze;
 
 import maze.util.Console;
+import maze.util.Pipeline;
+
+import java.io.IOException;
 
 public class Main {
-    public static void main(String[] args) {
-        new Console().start();
+    /*
+     * Starts the interactive console, or runs the pipeline described by
+     * the arguments and exits with 1 if any maze failed
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            new Console().start();
+            return;
+        }
+        Pipeline pipeline;
+        try {
+            pipeline = Pipeline.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.exit(2);
+            return;
+        } catch (IOException e) {
+            System.out.println("Cannot read the command file " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        System.exit(pipeline.run() == 0 ? 0 : 1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+/*
+ *  This class generates a maze with the recursive backtracker. A random
+ *  walk carves into cells which are not visited yet and backs up when it
+ *  is stuck. The walk is kept on an explicit stack instead of the call
+ *  stack, so large mazes do not overflow it. The mazes have long winding
+ *  corridors and few dead ends.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class BacktrackerGenerator implements MazeGenerator {
+
+    //The passage cells of the maze
+    private final PassageCells cells;
+
+    //Source of randomness for choosing the next cell
+    private final StableRandom random;
+
+    //Creates a new generator with a random seed
+    public BacktrackerGenerator(int height, int width) {
+        this(height, width, new SplittableRandom().nextLong());
+    }
+
+    //Creates a new generator which always generates the same maze for the seed
+    public BacktrackerGenerator(int height, int width, long seed) {
+        this.cells = new PassageCells(height, width);
+        this.random = new StableRandom(seed);
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        var visited = cells.newBits();
+        var stack = new int[16];
+        var count = 0;
+        var choices = new int[4];
+        var start = random.nextInt(cells.size());
+        PassageCells.set(visited, start);
+        stack[count++] = start;
+        while (count > 0) {
+            var cell = stack[count - 1];
+            var found = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                var next = cells.neighbor(cell, direction);
+                if (next >= 0 && !PassageCells.isSet(visited, next))
+                    choices[found++] = direction;
+            }
+            if (found == 0) {
+                count--;
+                continue;
+            }
+            var direction = choices[found == 1 ? 0 : random.nextInt(found)];
+            var next = cells.neighbor(cell, direction);
+            cells.carve(grid, cell, direction);
+            PassageCells.set(visited, next);
+            if (count == stack.length)
+                stack = Arrays.copyOf(stack, 2 * count);
+            stack[count++] = next;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *  This class generates a maze with the binary tree algorithm. Every
+ *  passage cell opens the wall above or the wall on its left at random,
+ *  while the cells of the top row and the left column have only one
+ *  choice. It needs no memory besides the grid and visits every cell
+ *  once, but the top row and the left column are always open corridors.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+import java.util.SplittableRandom;
+
+public class BinaryTreeGenerator implements MazeGenerator {
+
+    //The passage cells of the maze
+    private final PassageCells cells;
+
+    //Source of randomness for choosing the walls
+    private final StableRandom random;
+
+    //Creates a new generator with a random seed
+    public BinaryTreeGenerator(int height, int width) {
+        this(height, width, new SplittableRandom().nextLong());
+    }
+
+    //Creates a new generator which always generates the same maze for the seed
+    public BinaryTreeGenerator(int height, int width, long seed) {
+        this.cells = new PassageCells(height, width);
+        this.random = new StableRandom(seed);
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        for (int row = 0; row < cells.rows; row++) {
+            for (int column = 0; column < cells.columns; column++) {
+                var cell = row * cells.columns + column;
+                if (row == 0 && column == 0)
+                    continue;
+                if (row == 0) {
+                    cells.carve(grid, cell, PassageCells.LEFT);
+                } else if (column == 0) {
+                    cells.carve(grid, cell, PassageCells.UP);
+                } else {
+                    cells.carve(grid, cell, random.nextBit() ? PassageCells.UP : PassageCells.LEFT);
+                }
+            }
+        }
+    }
+}
@@ -4,8 +4,6 @@
  */
 package maze.algo.generation;
 
-import static java.util.stream.IntStream.range;
-
 public class DisjointSet {
 
     /*
@@ -15,24 +13,22 @@ public class DisjointSet {
      */
     private int[] parent;
 
-     //Heights of the trees corresponding to the subsets.
-    private int[] rank;
+     //Heights of the trees corresponding to the subsets. They never exceed 31.
+    private byte[] rank;
 
     //The number of disjoint subsets.
     private int size;
 
+    //The number of steps up the trees taken by find so far.
+    private long findSteps;
+
      //Constructs a disjoint set of {@code size} disjoint subsets.
     public DisjointSet(int size) {
         this.size = size;
         parent = new int[size];
-        rank = new int[size];
-        range(0, size).forEach(this::makeSet);
-    }
-
-    //Initializes a particular set
-    private void makeSet(int i) {
-        parent[i] = i;
-        rank[i] = 0;
+        rank = new byte[size];
+        for (int i = 0; i < size; i++)
+            parent[i] = i;
     }
 
     //Returns number of disjoint subsets
@@ -40,14 +36,24 @@ public class DisjointSet {
         return size;
     }
 
+    //Returns number of steps up the trees taken by find so far
+    public long getFindSteps() {
+        return findSteps;
+    }
+
     /*
      * Finds a representative for the set. If the set consists
      * only of the one element its parent equals to its id.
+     * Every visited element is moved to its grandparent on the
+     * way up, so the trees stay flat without any recursion.
      */
     public int find(int i) {
-        if (i != parent[i])
-            parent[i] = find(parent[i]);
-        return parent[i];
+        while (i != parent[i]) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+            findSteps++;
+        }
+        return i;
     }
 
     /*
@@ -0,0 +1,193 @@
+/*
+ *  This class generates a maze one row at a time with Eller's algorithm.
+ *  Only the set membership of the current row of passage cells is kept,
+ *  so memory depends on the width of the maze and never on its height.
+ *  The rows have the same layout as the ones built by Maze.
+ */
+package maze.algo.generation;
+
+import maze.io.RowSink;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class EllerGenerator {
+
+    //Walls every even column of a row, a bit per column starting from bit 0
+    private static final long EVEN_COLUMNS = 0x5555555555555555L;
+
+    //Height of the maze in cells
+    private final int height;
+
+    //Width of the maze in cells
+    private final int width;
+
+    //Number of rows of passage cells
+    private final int rows;
+
+    //Number of columns of passage cells
+    private final int columns;
+
+    //Source of randomness for joining the cells
+    private final StableRandom random;
+
+    //Set of every passage cell in the current row, -1 if it has none yet
+    private final int[] sets;
+
+    //Parents of the sets while the current row is merged
+    private final int[] parent;
+
+    //Number of cells of every set in the current row which are not processed yet
+    private final int[] remaining;
+
+    //Indicates if a set already has a passage to the next row
+    private final boolean[] hasDown;
+
+    //Row of the maze which is being built, reused for every row
+    private final long[] line;
+
+    //Creates a new generator with a random seed
+    public EllerGenerator(int height, int width) {
+        this(height, width, new StableRandom(new SplittableRandom().nextLong()));
+    }
+
+    //Creates a new generator which always generates the same maze for the seed
+    public EllerGenerator(int height, int width, long seed) {
+        this(height, width, new StableRandom(seed));
+    }
+
+    private EllerGenerator(int height, int width, StableRandom random) {
+        if (height < 3 || width < 3) {
+            throw new IllegalArgumentException(
+                "Both the height and the width " +
+                    "of the maze must be at least 3");
+        }
+        this.height = height;
+        this.width = width;
+        this.rows = (height - 1) / 2;
+        this.columns = (width - 1) / 2;
+        this.random = random;
+        sets = new int[columns];
+        parent = new int[2 * columns];
+        remaining = new int[2 * columns];
+        hasDown = new boolean[2 * columns];
+        line = new long[(width + 63) / 64];
+    }
+
+    /*
+     * Generates the maze and passes its rows to the sink from top
+     * to bottom. The generator can be used only once.
+     */
+    public void generate(RowSink sink) throws IOException {
+        sink.start(height, width);
+        Arrays.fill(sets, -1);
+        fill(-1L);
+        open(1);
+        sink.accept(line);
+        for (int row = 0; row < rows; row++) {
+            var last = row == rows - 1;
+            joinRow(last);
+            sink.accept(line);
+            if (!last) {
+                joinDown();
+                sink.accept(line);
+            }
+        }
+        var exit = width - 3 + width % 2;
+        for (int row = 2 * rows; row < height; row++) {
+            fill(-1L);
+            open(exit);
+            sink.accept(line);
+        }
+        sink.finish();
+    }
+
+    /*
+     * Builds the row of passage cells. Cells without a set get new ones and
+     * neighbors from different sets are joined at random. In the last row
+     * all the neighbors from different sets are joined.
+     */
+    private void joinRow(boolean last) {
+        fill(EVEN_COLUMNS);
+        if (width % 2 == 0)
+            line[(width - 1) >>> 6] |= 1L << (width - 1);
+        var next = columns;
+        for (int c = 0; c < columns; c++) {
+            if (sets[c] < 0)
+                sets[c] = next++;
+        }
+        for (int i = 0; i < next; i++)
+            parent[i] = i;
+        for (int c = 1; c < columns; c++) {
+            var left = find(sets[c - 1]);
+            var right = find(sets[c]);
+            if (left != right && (last || random.nextBit())) {
+                parent[right] = left;
+                open(2 * c);
+            }
+        }
+    }
+
+    /*
+     * Builds the row of walls below the passage cells. Every set gets
+     * at least one passage down, the cells below it inherit the set
+     * and the others are left without one.
+     */
+    private void joinDown() {
+        fill(-1L);
+        for (int c = 0; c < columns; c++) {
+            sets[c] = find(sets[c]);
+            remaining[sets[c]]++;
+            hasDown[sets[c]] = false;
+        }
+        for (int c = 0; c < columns; c++) {
+            var set = sets[c];
+            var isLast = --remaining[set] == 0;
+            if (random.nextBit() || isLast && !hasDown[set]) {
+                hasDown[set] = true;
+                open(2 * c + 1);
+            } else {
+                sets[c] = -1;
+            }
+        }
+        relabel();
+    }
+
+    //Renumbers the sets of the next row from 0, so fresh ones can follow them
+    private void relabel() {
+        Arrays.fill(parent, -1);
+        var next = 0;
+        for (int c = 0; c < columns; c++) {
+            var set = sets[c];
+            if (set < 0)
+                continue;
+            if (parent[set] < 0)
+                parent[set] = next++;
+            sets[c] = parent[set];
+        }
+    }
+
+
+    //Finds a representative for the set, moving every set to its grandparent
+    private int find(int i) {
+        while (i != parent[i]) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    //Fills the row with the same pattern of wall bits
+    private void fill(long pattern) {
+        Arrays.fill(line, pattern);
+        var tail = width % 64;
+        if (tail != 0)
+            line[line.length - 1] &= (1L << tail) - 1;
+    }
+
+    //Removes the wall from the given column of the row
+    private void open(int column) {
+        line[column >>> 6] &= ~(1L << column);
+    }
+}
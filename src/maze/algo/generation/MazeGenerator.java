@@ -0,0 +1,17 @@
+/*
+ *  This interface is implemented by the algorithms which carve the
+ *  passages of a maze. The grid is given in its original form: passage
+ *  cells at odd rows and columns surrounded by walls, with the entrance
+ *  and the exit already open. A generator opens walls between adjacent
+ *  passage cells so that every passage cell is connected to every other
+ *  one in exactly one way.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+public interface MazeGenerator {
+
+    //Carves the passages into the grid in its original form
+    void generate(Grid grid);
+}
@@ -0,0 +1,96 @@
+/*
+ *  This class describes the passage cells of a grid in its original form
+ *  as a smaller grid of their own, indexed row * columns + column, and
+ *  opens the walls between them. The generators work with these indices.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+final class PassageCells {
+
+    //Direction of the cell above
+    static final int UP = 0;
+
+    //Direction of the cell on the left
+    static final int LEFT = 1;
+
+    //Direction of the cell on the right
+    static final int RIGHT = 2;
+
+    //Direction of the cell below
+    static final int DOWN = 3;
+
+    //Number of rows of passage cells
+    final int rows;
+
+    //Number of columns of passage cells
+    final int columns;
+
+    PassageCells(int height, int width) {
+        if (height < 3 || width < 3) {
+            throw new IllegalArgumentException(
+                "Both the height and the width " +
+                    "of the maze must be at least 3");
+        }
+        this.rows = (height - 1) / 2;
+        this.columns = (width - 1) / 2;
+        if ((long) rows * columns > Integer.MAX_VALUE >> 1) {
+            throw new IllegalArgumentException(
+                "The maze is too large to generate");
+        }
+    }
+
+    //Return the number of passage cells
+    int size() {
+        return rows * columns;
+    }
+
+    //Return the passage cell next to the cell in the direction or -1 if there is none
+    int neighbor(int cell, int direction) {
+        switch (direction) {
+            case UP:
+                return cell >= columns ? cell - columns : -1;
+            case LEFT:
+                return cell % columns > 0 ? cell - 1 : -1;
+            case RIGHT:
+                return cell % columns < columns - 1 ? cell + 1 : -1;
+            default:
+                return cell < size() - columns ? cell + columns : -1;
+        }
+    }
+
+    //Opens the wall between the cell and its neighbor in the direction
+    void carve(Grid grid, int cell, int direction) {
+        var row = 2 * (cell / columns) + 1;
+        var column = 2 * (cell % columns) + 1;
+        switch (direction) {
+            case UP:
+                grid.setWall(row - 1, column, false);
+                break;
+            case LEFT:
+                grid.setWall(row, column - 1, false);
+                break;
+            case RIGHT:
+                grid.setWall(row, column + 1, false);
+                break;
+            default:
+                grid.setWall(row + 1, column, false);
+        }
+    }
+
+    //Checks if the bit of the cell is set
+    static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    //Sets the bit of the cell
+    static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    //Return a set of one bit per cell
+    long[] newBits() {
+        return new long[(size() + 63) >>> 6];
+    }
+}
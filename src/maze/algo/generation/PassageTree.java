@@ -5,16 +5,27 @@
  */
 package maze.algo.generation;
 
-import maze.model.Cell;
+import maze.model.Grid;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.SplittableRandom;
 
-import static java.util.stream.Collectors.toList;
-import static maze.model.Cell.Type.PASSAGE;
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.GENERATE_EDGES;
+import static maze.metrics.Metrics.GENERATE_FIND_STEPS;
 
-public class PassageTree {
+public class PassageTree implements MazeGenerator {
+
+    //Direction of an edge to the cell on the left
+    private static final int LEFT = 0;
+
+    //Direction of an edge to the cell above
+    private static final int UP = 1;
+
+    //First row of passage cells covered by the tree
+    private final int top;
+
+    //First column of passage cells covered by the tree
+    private final int left;
 
     //Height of the maze
     private int height;
@@ -22,91 +33,116 @@ public class PassageTree {
     //Width of the maze
     private int width;
 
-    //Creates a new edge
+    //Source of randomness for shuffling the edges
+    private final StableRandom random;
+
+    //Creates a new tree with a random seed
     public PassageTree(int height, int width) {
-        this.height = (height - 1) / 2;
-        this.width = (width - 1) / 2;
+        this(height, width, new StableRandom(new SplittableRandom().nextLong()));
+    }
+
+    //Creates a new tree which always generates the same passages for the seed
+    public PassageTree(int height, int width, long seed) {
+        this(height, width, new StableRandom(seed));
+    }
+
+    private PassageTree(int height, int width, StableRandom random) {
+        this(0, 0, (height - 1) / 2, (width - 1) / 2, random);
     }
 
     /*
-     * Generates a random list of cells that connect passages in
-     * an original form such that a maze is simply connected.
+     * Creates a tree over a rectangle of passage cells. The rectangle is
+     * measured in passage cells, not in the cells of the grid
      */
-    public List<Cell> generate() {
+    PassageTree(int top, int left, int rows, int columns, StableRandom random) {
+        this.top = top;
+        this.left = left;
+        this.height = rows;
+        this.width = columns;
+        this.random = random;
+    }
+
+    /*
+     * Carves random passages into the grid filled in an original form
+     * such that a maze is simply connected.
+     */
+    @Override
+    public void generate(Grid grid) {
         var edges = createEdges();
-        Collections.shuffle(edges);
-        var tree = buildRandomSpanningTree(edges);
-        return createPassages(tree);
+        shuffle(edges);
+        buildRandomSpanningTree(edges, grid);
     }
 
-    //Creates a list of all possible edges
-    private List<Edge> createEdges() {
-        var edges = new ArrayList<Edge>();
-        for (int column = 1; column < width; column++) {
-            edges.add(new Edge(toIndex(0, column),
-                               toIndex(0, column - 1)));
-        }
-        for (int row = 1; row < height; row++) {
-            edges.add(new Edge(toIndex(row, 0),
-                               toIndex(row - 1, 0)));
+    /*
+     * Creates an array of all possible edges. An edge is packed into
+     * one int as the index of its cell followed by the direction bit
+     */
+    private int[] createEdges() {
+        var cells = (long) height * width;
+        if (cells > Integer.MAX_VALUE >> 1) {
+            throw new IllegalArgumentException(
+                "The maze is too large to generate");
         }
-        for (int row = 1; row < height; row++) {
-            for (int column = 1; column < width; column++) {
-                edges.add(new Edge(toIndex(row, column),
-                                   toIndex(row, column - 1)));
-                edges.add(new Edge(toIndex(row, column),
-                                   toIndex(row - 1, column)));
+        var edges = new int[height * (width - 1) + (height - 1) * width];
+        var count = 0;
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                var index = toIndex(row, column);
+                if (column > 0)
+                    edges[count++] = index << 1 | LEFT;
+                if (row > 0)
+                    edges[count++] = index << 1 | UP;
             }
         }
         return edges;
     }
 
-    
+    //Shuffles the edges in place with the Fisher-Yates algorithm
+    private void shuffle(int[] edges) {
+        for (int i = edges.length - 1; i > 0; i--) {
+            var j = random.nextInt(i + 1);
+            var edge = edges[i];
+            edges[i] = edges[j];
+            edges[j] = edge;
+        }
+    }
+
     //Transforms the coordinates in a 2-dimensional array into a 1-dimensional array
     private int toIndex(int row, int column) {
         return row * width + column;
     }
 
-    //Generates a list of edges that connect passages. It is a
-    private List<Edge> buildRandomSpanningTree(List<Edge> edges) {
+    /*
+     * Carves every edge that connects two disjoint subsets. It stops as
+     * soon as all the cells belong to one tree.
+     */
+    private void buildRandomSpanningTree(int[] edges, Grid grid) {
         var disjointSets = new DisjointSet(width * height);
-        return edges
-            .stream()
-            .filter(edge -> connects(edge, disjointSets))
-            .collect(toList());
-    }
-
-    //Checks if an edge connects 2 disjoint subsets
-    private boolean connects(Edge edge, DisjointSet disjointSet) {
-        return disjointSet.union(edge.getFirstCell(), edge.getSecondCell());
+        var considered = 0;
+        for (var edge : edges) {
+            if (disjointSets.getSize() == 1)
+                break;
+            considered++;
+            var cell = edge >>> 1;
+            var neighbor = (edge & 1) == LEFT ? cell - 1 : cell - width;
+            if (disjointSets.union(cell, neighbor))
+                carve(grid, cell, edge & 1);
+        }
+        metrics().count(GENERATE_EDGES, considered);
+        metrics().count(GENERATE_FIND_STEPS, disjointSets.getFindSteps());
     }
 
     /*
-     * Scales and converts edges in an imaginary edge form to the cells
-     * which connect passages in a original form.
+     * Scales the edge to the grid in an original form and opens the
+     * wall between its cells.
      */
-    private List<Cell> createPassages(List<Edge> spanningTree) {
-        return spanningTree
-            .stream()
-            .map(edge -> {
-                var first = fromIndex(edge.getFirstCell());
-                var second = fromIndex(edge.getSecondCell());
-                return getPassage(first, second);
-            }).collect(toList());
-    }
-
-    
-    //Transforms the coordinate in a 1-dimensional array back to a 2-dimensional array
-    private Cell fromIndex(int index) {
-        var row = index / width;
-        var column = index % width;
-        return new Cell(row, column, PASSAGE);
-    }
-
-    //Scales, transforms, and finalizes cell passages
-    private Cell getPassage(Cell first, Cell second) {
-        var row = first.getRow() + second.getRow() + 1;
-        var column = first.getColumn() + second.getColumn() + 1;
-        return new Cell(row, column, PASSAGE);
+    private void carve(Grid grid, int cell, int direction) {
+        var row = 2 * (top + cell / width) + 1;
+        var column = 2 * (left + cell % width) + 1;
+        if (direction == LEFT) {
+            grid.setWall(row, column - 1, false);
+        } else {
+            grid.setWall(row - 1, column, false);
+        }
     }
 }
@@ -0,0 +1,69 @@
+/*
+ *  This class generates a maze with the randomized Prim's algorithm. The
+ *  maze grows from one cell by joining a random cell of its frontier, the
+ *  cells next to it, to a random neighbor already inside. The frontier is
+ *  a plain array of cell indices where a taken cell is replaced by the
+ *  last one. The mazes have many short dead ends.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class PrimGenerator implements MazeGenerator {
+
+    //The passage cells of the maze
+    private final PassageCells cells;
+
+    //Source of randomness for choosing the cells
+    private final StableRandom random;
+
+    //Creates a new generator with a random seed
+    public PrimGenerator(int height, int width) {
+        this(height, width, new SplittableRandom().nextLong());
+    }
+
+    //Creates a new generator which always generates the same maze for the seed
+    public PrimGenerator(int height, int width, long seed) {
+        this.cells = new PassageCells(height, width);
+        this.random = new StableRandom(seed);
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        var inside = cells.newBits();
+        var seen = cells.newBits();
+        var frontier = new int[16];
+        var count = 0;
+        var choices = new int[4];
+        var cell = random.nextInt(cells.size());
+        PassageCells.set(inside, cell);
+        PassageCells.set(seen, cell);
+        while (true) {
+            for (int direction = 0; direction < 4; direction++) {
+                var next = cells.neighbor(cell, direction);
+                if (next >= 0 && !PassageCells.isSet(seen, next)) {
+                    PassageCells.set(seen, next);
+                    if (count == frontier.length)
+                        frontier = Arrays.copyOf(frontier, 2 * count);
+                    frontier[count++] = next;
+                }
+            }
+            if (count == 0)
+                break;
+            var taken = random.nextInt(count);
+            cell = frontier[taken];
+            frontier[taken] = frontier[--count];
+            var found = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                var next = cells.neighbor(cell, direction);
+                if (next >= 0 && PassageCells.isSet(inside, next))
+                    choices[found++] = direction;
+            }
+            cells.carve(grid, cell, choices[found == 1 ? 0 : random.nextInt(found)]);
+            PassageCells.set(inside, cell);
+        }
+    }
+}
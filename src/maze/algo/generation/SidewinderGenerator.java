@@ -0,0 +1,52 @@
+/*
+ *  This class generates a maze with the sidewinder algorithm. The top
+ *  row is one corridor. Every other row is cut into runs of random
+ *  length, each run is a corridor and one random cell of it opens the
+ *  wall above. Only the start of the current run is kept, so it needs no
+ *  memory besides the grid, and the rows are carved from top to bottom.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+import java.util.SplittableRandom;
+
+public class SidewinderGenerator implements MazeGenerator {
+
+    //The passage cells of the maze
+    private final PassageCells cells;
+
+    //Source of randomness for the runs
+    private final StableRandom random;
+
+    //Creates a new generator with a random seed
+    public SidewinderGenerator(int height, int width) {
+        this(height, width, new SplittableRandom().nextLong());
+    }
+
+    //Creates a new generator which always generates the same maze for the seed
+    public SidewinderGenerator(int height, int width, long seed) {
+        this.cells = new PassageCells(height, width);
+        this.random = new StableRandom(seed);
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        for (int column = 1; column < cells.columns; column++)
+            cells.carve(grid, column, PassageCells.LEFT);
+        for (int row = 1; row < cells.rows; row++) {
+            var first = row * cells.columns;
+            var runStart = first;
+            for (int column = 0; column < cells.columns; column++) {
+                var cell = first + column;
+                if (column == cells.columns - 1 || random.nextBit()) {
+                    var up = runStart + (cell == runStart ? 0 : random.nextInt(cell - runStart + 1));
+                    cells.carve(grid, up, PassageCells.UP);
+                    runStart = cell + 1;
+                } else {
+                    cells.carve(grid, cell, PassageCells.RIGHT);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *  This class is the source of randomness of the generators. It is the
+ *  SplitMix64 generator written out here, so a seed gives the same numbers
+ *  on every JVM and release, which the library classes do not promise.
+ *  Mazes stored as a seed rely on that.
+ */
+package maze.algo.generation;
+
+final class StableRandom {
+
+    //Step of the state between numbers
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    //State which is mixed into every number
+    private long state;
+
+    //Random bits which are not used yet
+    private long bits;
+
+    //Number of random bits which are not used yet
+    private int bitCount;
+
+    StableRandom(long seed) {
+        this.state = seed;
+    }
+
+    //Return the next 64 random bits
+    long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    //Return a random bit, taking 64 of them at once from nextLong
+    boolean nextBit() {
+        if (bitCount == 0) {
+            bits = nextLong();
+            bitCount = 64;
+        }
+        bitCount--;
+        var bit = (bits & 1) != 0;
+        bits >>>= 1;
+        return bit;
+    }
+
+    /*
+     * Return the bits of the value scrambled so that close values give
+     * unrelated results. Seeds derived from one seed go through it, since
+     * seeds a multiple of the step apart would give the same numbers
+     * shifted by some draws
+     */
+    static long mix64(long z) {
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+
+    /*
+     * Return a uniform number from 0 up to the bound. Takes the high half
+     * of a 32-bit number times the bound and rejects the few low halves
+     * which would make it biased
+     */
+    int nextInt(int bound) {
+        if (bound < 1)
+            throw new IllegalArgumentException("The bound must be positive");
+        var product = (nextLong() >>> 32) * bound;
+        if ((product & 0xFFFFFFFFL) < bound) {
+            var threshold = (0x100000000L - bound) % bound;
+            while ((product & 0xFFFFFFFFL) < threshold)
+                product = (nextLong() >>> 32) * bound;
+        }
+        return (int) (product >>> 32);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  This class creates random passages on several cores. The passage cells
+ *  are split into tiles, every tile gets its own random spanning tree on a
+ *  fork/join pool, and then the tiles are joined into one tree by opening
+ *  one wall between some of the neighboring tiles. The passages depend only
+ *  on the seed and the tile size, not on the number of threads.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class TiledPassageTree implements MazeGenerator {
+
+    /*
+     * A row of the grid is packed 64 cells to a word, which is 32 passage
+     * cells. Tiles are that many passage cells wide, so two tiles never
+     * write to the same word.
+     */
+    private static final int ALIGNMENT = 32;
+
+    //Height of the maze in passage cells
+    private final int rows;
+
+    //Width of the maze in passage cells
+    private final int columns;
+
+    //Height of a tile in passage cells
+    private final int tileRows;
+
+    //Width of a tile in passage cells
+    private final int tileColumns;
+
+    //Number of tiles in a column
+    private final int tilesDown;
+
+    //Number of tiles in a row
+    private final int tilesAcross;
+
+    //Seed of the whole maze
+    private final long seed;
+
+    //Pool the tiles are generated in
+    private final ForkJoinPool pool;
+
+    //Creates a new tree which uses the common fork/join pool
+    public TiledPassageTree(int height, int width, long seed, int tileSize) {
+        this(height, width, seed, tileSize, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Creates a new tree which splits the maze into tiles of the given
+     * size in passage cells. The width of a tile is rounded up to a
+     * multiple of 32 passage cells
+     */
+    public TiledPassageTree(int height, int width, long seed, int tileSize,
+                            ForkJoinPool pool) {
+        if (tileSize < 1)
+            throw new IllegalArgumentException("The tile size must be positive");
+        this.rows = (height - 1) / 2;
+        this.columns = (width - 1) / 2;
+        this.tileRows = tileSize;
+        this.tileColumns = (tileSize + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        this.tilesDown = (rows + tileRows - 1) / tileRows;
+        this.tilesAcross = (columns + tileColumns - 1) / tileColumns;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /*
+     * Carves random passages into the grid filled in an original form
+     * such that a maze is simply connected.
+     */
+    @Override
+    public void generate(Grid grid) {
+        pool.invoke(new TileTask(grid, 0, tilesDown * tilesAcross));
+        stitch(grid);
+    }
+
+    //Builds a spanning tree inside the tile with the given index
+    private void generateTile(Grid grid, int tile) {
+        var top = tile / tilesAcross * tileRows;
+        var left = tile % tilesAcross * tileColumns;
+        var random = new StableRandom(StableRandom.mix64(seed ^ StableRandom.mix64(tile + 1L)));
+        new PassageTree(top, left,
+                        Math.min(tileRows, rows - top),
+                        Math.min(tileColumns, columns - left),
+                        random)
+            .generate(grid);
+    }
+
+    /*
+     * Joins the tiles into one tree. Every pair of neighboring tiles has
+     * one random candidate wall on their border, and the candidates are
+     * opened in a random order while they connect different tiles.
+     */
+    private void stitch(Grid grid) {
+        var tiles = tilesDown * tilesAcross;
+        var random = new StableRandom(StableRandom.mix64(seed));
+        var borders = new int[2 * tiles];
+        var count = 0;
+        for (int tile = 0; tile < tiles; tile++) {
+            if (tile % tilesAcross > 0)
+                borders[count++] = tile << 1;
+            if (tile >= tilesAcross)
+                borders[count++] = tile << 1 | 1;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            var j = random.nextInt(i + 1);
+            var border = borders[i];
+            borders[i] = borders[j];
+            borders[j] = border;
+        }
+        var disjointSets = new DisjointSet(tiles);
+        for (int i = 0; i < count; i++) {
+            var tile = borders[i] >>> 1;
+            var vertical = (borders[i] & 1) != 0;
+            var neighbor = vertical ? tile - tilesAcross : tile - 1;
+            if (disjointSets.union(tile, neighbor))
+                openBorder(grid, tile, vertical, random);
+        }
+    }
+
+    /*
+     * Opens a random wall between the tile and its neighbor above,
+     * if vertical is true, or its neighbor on the left
+     */
+    private void openBorder(Grid grid, int tile, boolean vertical,
+                            StableRandom random) {
+        var top = tile / tilesAcross * tileRows;
+        var left = tile % tilesAcross * tileColumns;
+        if (vertical) {
+            var column = left + random.nextInt(Math.min(tileColumns, columns - left));
+            grid.setWall(2 * top, 2 * column + 1, false);
+        } else {
+            var row = top + random.nextInt(Math.min(tileRows, rows - top));
+            grid.setWall(2 * row + 1, 2 * left, false);
+        }
+    }
+
+    //Generates a range of tiles, splitting it in halves between workers
+    private class TileTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Grid grid;
+
+        private final int from;
+
+        private final int to;
+
+        TileTask(Grid grid, int from, int to) {
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                generateTile(grid, from);
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new TileTask(grid, from, middle),
+                      new TileTask(grid, middle, to));
+        }
+    }
+}
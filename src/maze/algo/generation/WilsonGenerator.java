@@ -0,0 +1,58 @@
+/*
+ *  This class generates a maze with Wilson's algorithm. Random walks
+ *  start from cells outside of the maze and wander until they hit it.
+ *  Only the last direction taken from every cell is remembered, which
+ *  erases the loops of a walk, and the walk is then carved into the
+ *  maze. Every possible maze is generated with the same probability.
+ */
+package maze.algo.generation;
+
+import maze.model.Grid;
+
+import java.util.SplittableRandom;
+
+public class WilsonGenerator implements MazeGenerator {
+
+    //The passage cells of the maze
+    private final PassageCells cells;
+
+    //Source of randomness for the walks
+    private final StableRandom random;
+
+    //Creates a new generator with a random seed
+    public WilsonGenerator(int height, int width) {
+        this(height, width, new SplittableRandom().nextLong());
+    }
+
+    //Creates a new generator which always generates the same maze for the seed
+    public WilsonGenerator(int height, int width, long seed) {
+        this.cells = new PassageCells(height, width);
+        this.random = new StableRandom(seed);
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        var inside = cells.newBits();
+        var directions = new byte[cells.size()];
+        PassageCells.set(inside, random.nextInt(cells.size()));
+        for (int start = 0; start < cells.size(); start++) {
+            if (PassageCells.isSet(inside, start))
+                continue;
+            var cell = start;
+            while (!PassageCells.isSet(inside, cell)) {
+                var direction = random.nextInt(4);
+                var next = cells.neighbor(cell, direction);
+                if (next < 0)
+                    continue;
+                directions[cell] = (byte) direction;
+                cell = next;
+            }
+            cell = start;
+            while (!PassageCells.isSet(inside, cell)) {
+                PassageCells.set(inside, cell);
+                cells.carve(grid, cell, directions[cell]);
+                cell = cells.neighbor(cell, directions[cell]);
+            }
+        }
+    }
+}
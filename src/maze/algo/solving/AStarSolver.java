@@ -0,0 +1,21 @@
+/*
+ *  This solver runs the A* search of Fugitive, so it can be compared with
+ *  the other engines on the same maze.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+public class AStarSolver implements Solver {
+
+    @Override
+    public SearchResult search(Grid grid, int start, int end) {
+        var time = System.nanoTime();
+        if (!Moves.checkEnds(grid, start, end))
+            return SearchResult.finish(new int[0], 0, 0, time);
+        var fugitive = new Fugitive(grid, start, end);
+        var path = fugitive.findEscape();
+        return new SearchResult(path, fugitive.getExpanded(), fugitive.getPeakOpen(),
+                                System.nanoTime() - time);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ *  This class finds an escape path by searching from the entrance and from
+ *  the exit at the same time until the two searches meet. Both searches go
+ *  breadth-first, a layer of cells at a time, and every cell is claimed by
+ *  the first search that reaches it, so the searches meet as soon as one
+ *  of them reaches a cell claimed by the other.
+ *
+ *  The searches can take turns on one thread, which always gives a
+ *  shortest path, or run on two threads. On two threads the path is still
+ *  the only one in a perfect maze, but in a grid with cycles it may be
+ *  longer than the shortest one.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BidirectionalFugitive {
+
+    //Moves in all directions from current cell
+    private static final int[][] DELTAS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+
+    //Claim of the cells reached from the start
+    private static final int FORWARD = 1;
+
+    //Claim of the cells reached from the end
+    private static final int BACKWARD = 2;
+
+    //Meeting value while the searches have not met
+    private static final long SEARCHING = -1;
+
+    //Meeting value when one of the searches ran out of cells
+    private static final long NO_PATH = -2;
+
+    //The height of the maze in cells
+    private final int height;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Walls of the maze
+    private final Grid grid;
+
+    //Index of the start cell
+    private final int start;
+
+    //Index of the end cell
+    private final int end;
+
+    //Indicates if the searches run on two threads
+    private final boolean parallel;
+
+    //Previous cell on the path from the start or the end, whichever claimed the cell
+    private final int[] parent;
+
+    //Two bits per cell telling which search claimed it, 16 cells in an int
+    private final AtomicIntegerArray claims;
+
+    /*
+     * Cells on both sides of the meeting point, the one of the forward
+     * search in the high half and the other one in the low half
+     */
+    private final AtomicLong meeting = new AtomicLong(SEARCHING);
+
+    /*
+     * Prepares a search on the grid between the cells with the given
+     * indices. The index of a cell is row * width + column
+     */
+    public BidirectionalFugitive(Grid grid, int start, int end, boolean parallel) {
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        this.grid = grid;
+        this.start = start;
+        this.end = end;
+        this.parallel = parallel;
+        var size = Math.multiplyExact(height, width);
+        parent = new int[size];
+        claims = new AtomicIntegerArray((size + 15) >>> 4);
+    }
+
+    /*
+     * Searches from both ends. Return indices of the cells from the start
+     * to the end or an empty array if there is no path
+     */
+    public int[] findEscape() {
+        if (start == end)
+            return new int[] {start};
+        var forward = new Frontier(start, FORWARD);
+        var backward = new Frontier(end, BACKWARD);
+        if (parallel) {
+            var other = CompletableFuture.runAsync(() -> search(backward));
+            search(forward);
+            other.join();
+        } else {
+            while (meeting.get() == SEARCHING) {
+                var smaller = forward.size <= backward.size ? forward : backward;
+                if (!smaller.expand())
+                    meeting.compareAndSet(SEARCHING, NO_PATH);
+            }
+        }
+        return meeting.get() < 0 ? new int[0] : reconstructPath();
+    }
+
+    //Expands the frontier layer by layer until the searches meet or one of them ends
+    private void search(Frontier frontier) {
+        while (meeting.get() == SEARCHING) {
+            if (!frontier.expand())
+                meeting.compareAndSet(SEARCHING, NO_PATH);
+        }
+    }
+
+    //Joins the path from the start to the meeting point with the path from there to the end
+    private int[] reconstructPath() {
+        var first = (int) (meeting.get() >>> 32);
+        var second = (int) meeting.get();
+        var length = distance(first, start) + distance(second, end) + 2;
+        var path = new int[length];
+        var i = distance(first, start);
+        for (var cur = first; ; cur = parent[cur]) {
+            path[i--] = cur;
+            if (cur == start)
+                break;
+        }
+        i = length - distance(second, end) - 1;
+        for (var cur = second; ; cur = parent[cur]) {
+            path[i++] = cur;
+            if (cur == end)
+                break;
+        }
+        return path;
+    }
+
+    //Return the number of steps from the cell back to the root of its search
+    private int distance(int cell, int root) {
+        var steps = 0;
+        for (; cell != root; cell = parent[cell])
+            steps++;
+        return steps;
+    }
+
+    /*
+     * Claims the cell for the search if no search has claimed it yet.
+     * Return 0 if the cell is claimed now or the claim of the other search
+     */
+    private int claim(int cell, int side) {
+        var word = cell >>> 4;
+        var shift = (cell & 15) << 1;
+        while (true) {
+            var bits = claims.get(word);
+            var owner = bits >>> shift & 3;
+            if (owner != 0)
+                return owner;
+            if (claims.compareAndSet(word, bits, bits | side << shift))
+                return 0;
+        }
+    }
+
+    //Checks if cells are in bounds of array
+    private boolean inBounds(int row, int column) {
+        return row >= 0 && row < height
+            && column >= 0 && column < width;
+    }
+
+    //The last layer of cells reached by one of the searches
+    private class Frontier {
+
+        //Claim of the search
+        private final int side;
+
+        //Cells of the last layer
+        private int[] layer = new int[16];
+
+        //Number of cells in the last layer
+        private int size;
+
+        //Cells of the next layer, reused between layers
+        private int[] next = new int[16];
+
+        Frontier(int root, int side) {
+            this.side = side;
+            parent[root] = root;
+            claim(root, side);
+            layer[size++] = root;
+        }
+
+        /*
+         * Replaces the layer with the unclaimed neighbors of its cells. Return
+         * false if the layer is empty, so the search cannot go on
+         */
+        boolean expand() {
+            if (size == 0)
+                return false;
+            var count = 0;
+            for (int i = 0; i < size; i++) {
+                if (parallel && meeting.get() != SEARCHING)
+                    return true;
+                var cur = layer[i];
+                var row = cur / width;
+                var column = cur % width;
+                for (var delta : DELTAS) {
+                    var r = row + delta[0];
+                    var c = column + delta[1];
+                    if (!inBounds(r, c) || grid.isWall(r, c))
+                        continue;
+                    var cell = r * width + c;
+                    var owner = claim(cell, side);
+                    if (owner == 0) {
+                        parent[cell] = cur;
+                        if (count == next.length)
+                            next = Arrays.copyOf(next, 2 * count);
+                        next[count++] = cell;
+                    } else if (owner != side) {
+                        meet(cur, cell);
+                        return true;
+                    }
+                }
+            }
+            var swap = layer;
+            layer = next;
+            next = swap;
+            size = count;
+            return true;
+        }
+
+        //Records the meeting point between a cell of this search and one of the other
+        private void meet(int own, int other) {
+            var forward = side == FORWARD ? own : other;
+            var backward = side == FORWARD ? other : own;
+            meeting.compareAndSet(SEARCHING, (long) forward << 32 | backward);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  This solver searches breadth first with the queue in a plain array.
+ *  Every step costs the same, so the first time the end is reached the
+ *  path is a shortest one, with no heap and no heuristic to pay for.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+
+public class BreadthFirstSolver implements Solver {
+
+    @Override
+    public SearchResult search(Grid grid, int start, int end) {
+        var time = System.nanoTime();
+        if (!Moves.checkEnds(grid, start, end))
+            return SearchResult.finish(new int[0], 0, 0, time);
+        var size = grid.getHeight() * grid.getWidth();
+        var parent = new int[size];
+        var seen = new long[(size + 63) >>> 6];
+        var queue = new int[16];
+        var head = 0;
+        var tail = 0;
+        var peak = 1L;
+        queue[tail++] = start;
+        Moves.set(seen, start);
+        while (head < tail) {
+            var cur = queue[head++];
+            if (cur == end)
+                return SearchResult.finish(Moves.trace(parent, start, end), head, peak, time);
+            for (int direction = 0; direction < Moves.DIRECTIONS; direction++) {
+                var next = Moves.step(grid, cur, direction);
+                if (next < 0 || Moves.isSet(seen, next))
+                    continue;
+                Moves.set(seen, next);
+                parent[next] = cur;
+                if (tail == queue.length)
+                    queue = Arrays.copyOf(queue, (int) Math.min(2L * tail, size));
+                queue[tail++] = next;
+            }
+            peak = Math.max(peak, tail - head);
+        }
+        return SearchResult.finish(new int[0], head, peak, time);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  This solver fills the dead ends of the grid until only the cells
+ *  which lie on paths between the start and the end are left. Filling a
+ *  dead end may turn the cell before it into a new one, so the filling
+ *  walks back along every blind corridor. In a perfect maze a single
+ *  path remains and it is walked without any choice. In other grids the
+ *  remaining cells are searched breadth first, which still gives a
+ *  shortest path as filling never removes a cell of a path to the end.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+
+public class DeadEndFillingSolver implements Solver {
+
+    @Override
+    public SearchResult search(Grid grid, int start, int end) {
+        var time = System.nanoTime();
+        if (!Moves.checkEnds(grid, start, end))
+            return SearchResult.finish(new int[0], 0, 0, time);
+        var height = grid.getHeight();
+        var width = grid.getWidth();
+        var size = height * width;
+        var degree = new byte[size];
+        var filled = new long[(size + 63) >>> 6];
+        var queue = new int[16];
+        var tail = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                var cell = i * width + j;
+                if (grid.isWall(i, j))
+                    continue;
+                for (int direction = 0; direction < Moves.DIRECTIONS; direction++) {
+                    if (Moves.step(grid, cell, direction) >= 0)
+                        degree[cell]++;
+                }
+                if (degree[cell] <= 1 && cell != start && cell != end) {
+                    if (tail == queue.length)
+                        queue = Arrays.copyOf(queue, (int) Math.min(2L * tail, size));
+                    queue[tail++] = cell;
+                }
+            }
+        }
+        var head = 0;
+        var peak = (long) tail;
+        while (head < tail) {
+            var cell = queue[head++];
+            Moves.set(filled, cell);
+            for (int direction = 0; direction < Moves.DIRECTIONS; direction++) {
+                var next = Moves.step(grid, cell, direction);
+                if (next < 0 || Moves.isSet(filled, next) || --degree[next] != 1
+                    || next == start || next == end)
+                    continue;
+                if (tail == queue.length)
+                    queue = Arrays.copyOf(queue, (int) Math.min(2L * tail, size));
+                queue[tail++] = next;
+            }
+            peak = Math.max(peak, tail - head);
+        }
+        return searchRemaining(grid, start, end, filled, queue, tail, peak, time);
+    }
+
+    /*
+     * Searches breadth first through the cells which are not filled. The
+     * queue of the filling is reused. In a perfect maze the frontier
+     * never holds more than one cell
+     */
+    private static SearchResult searchRemaining(Grid grid, int start, int end, long[] filled,
+                                                int[] queue, long filledCount, long peak, long time) {
+        var size = grid.getHeight() * grid.getWidth();
+        var parent = new int[size];
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = start;
+        Moves.set(filled, start);
+        while (head < tail) {
+            var cur = queue[head++];
+            if (cur == end)
+                return SearchResult.finish(Moves.trace(parent, start, end), filledCount + head, peak, time);
+            for (int direction = 0; direction < Moves.DIRECTIONS; direction++) {
+                var next = Moves.step(grid, cur, direction);
+                if (next < 0 || Moves.isSet(filled, next))
+                    continue;
+                Moves.set(filled, next);
+                parent[next] = cur;
+                if (tail == queue.length)
+                    queue = Arrays.copyOf(queue, (int) Math.min(2L * tail, size));
+                queue[tail++] = next;
+            }
+            peak = Math.max(peak, tail - head);
+        }
+        return SearchResult.finish(new int[0], filledCount + head, peak, time);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ *  This solver searches depth first with an explicit stack. It follows
+ *  one corridor to its end before trying another, which keeps the
+ *  frontier small. In a perfect maze the only path is found, while in
+ *  other grids the path is not always the shortest one.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+
+public class DepthFirstSolver implements Solver {
+
+    @Override
+    public SearchResult search(Grid grid, int start, int end) {
+        var time = System.nanoTime();
+        if (!Moves.checkEnds(grid, start, end))
+            return SearchResult.finish(new int[0], 0, 0, time);
+        var size = grid.getHeight() * grid.getWidth();
+        var parent = new int[size];
+        var seen = new long[(size + 63) >>> 6];
+        var stack = new int[16];
+        var count = 0;
+        var visited = 0L;
+        var peak = 1L;
+        stack[count++] = start;
+        Moves.set(seen, start);
+        while (count > 0) {
+            var cur = stack[--count];
+            visited++;
+            if (cur == end)
+                return SearchResult.finish(Moves.trace(parent, start, end), visited, peak, time);
+            for (int direction = 0; direction < Moves.DIRECTIONS; direction++) {
+                var next = Moves.step(grid, cur, direction);
+                if (next < 0 || Moves.isSet(seen, next))
+                    continue;
+                Moves.set(seen, next);
+                parent[next] = cur;
+                if (count == stack.length)
+                    stack = Arrays.copyOf(stack, (int) Math.min(2L * count, size));
+                stack[count++] = next;
+            }
+            peak = Math.max(peak, count);
+        }
+        return SearchResult.finish(new int[0], visited, peak, time);
+    }
+}
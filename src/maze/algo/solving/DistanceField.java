@@ -0,0 +1,191 @@
+/*
+ *  This class keeps the number of steps from every cell of a maze to the
+ *  nearest of its targets, found by one breadth-first walk from all the
+ *  targets at once. A shortest path from any cell is then found without
+ *  searching, by stepping downhill to a neighbor one step closer until a
+ *  target is reached, so every route costs only its own length.
+ *
+ *  The distances take one int per cell of the grid, walls and the cells
+ *  which cannot reach a target have UNREACHABLE.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+
+public class DistanceField {
+
+    //Distance of walls and of cells without a path to a target
+    public static final int UNREACHABLE = -1;
+
+    //Moves in all directions from current cell
+    private static final int[][] DELTAS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+
+    //The height of the maze in cells
+    private final int height;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Cells the distances are measured to
+    private final int[] targets;
+
+    //Distance of every cell to the nearest target
+    private final int[] distances;
+
+    /*
+     * Measures the distances to the nearest of the targets, which are
+     * indices of cells, row * width + column. Targets in walls are skipped
+     */
+    public DistanceField(Grid grid, int... targets) {
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        this.targets = targets.clone();
+        var size = Math.multiplyExact(height, width);
+        distances = new int[size];
+        Arrays.fill(distances, UNREACHABLE);
+        var queue = new int[size];
+        var tail = 0;
+        for (var target : this.targets) {
+            if (target < 0 || target >= size)
+                throw new IllegalArgumentException("The targets must be inside of the maze");
+            if (grid.isWall(target / width, target % width) || distances[target] == 0)
+                continue;
+            distances[target] = 0;
+            queue[tail++] = target;
+        }
+        for (int head = 0; head < tail; head++) {
+            var cur = queue[head];
+            var row = cur / width;
+            var column = cur % width;
+            for (var delta : DELTAS) {
+                var r = row + delta[0];
+                var c = column + delta[1];
+                if (r < 0 || r >= height || c < 0 || c >= width)
+                    continue;
+                var next = r * width + c;
+                if (distances[next] != UNREACHABLE || grid.isWall(r, c))
+                    continue;
+                distances[next] = distances[cur] + 1;
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    /*
+     * Creates a field from distances computed before, such as the ones
+     * read from a file. The array is used as it is
+     */
+    public DistanceField(int height, int width, int[] targets, int[] distances) {
+        if (distances.length != (long) height * width)
+            throw new IllegalArgumentException("The distances do not match the size of the maze");
+        this.height = height;
+        this.width = width;
+        this.targets = targets.clone();
+        this.distances = distances;
+    }
+
+    /*
+     * Checks if the distances are the ones of the grid, such as after
+     * reading them from a file. Targets must be 0, walls and cells next
+     * only to unreachable cells UNREACHABLE, and every other cell one more
+     * than its closest neighbor, so routes never cross walls
+     */
+    public boolean fits(Grid grid) {
+        if (grid.getHeight() != height || grid.getWidth() != width)
+            return false;
+        var isTarget = new long[(distances.length + 63) >>> 6];
+        for (var target : targets) {
+            if (target < 0 || target >= distances.length)
+                return false;
+            isTarget[target >>> 6] |= 1L << target;
+        }
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                var cell = i * width + j;
+                var distance = distances[cell];
+                if (grid.isWall(i, j)) {
+                    if (distance != UNREACHABLE)
+                        return false;
+                    continue;
+                }
+                if ((isTarget[cell >>> 6] & 1L << cell) != 0) {
+                    if (distance != 0)
+                        return false;
+                    continue;
+                }
+                var closest = Integer.MAX_VALUE;
+                for (var delta : DELTAS) {
+                    var r = i + delta[0];
+                    var c = j + delta[1];
+                    if (r >= 0 && r < height && c >= 0 && c < width && !grid.isWall(r, c)
+                        && distances[r * width + c] != UNREACHABLE)
+                        closest = Math.min(closest, distances[r * width + c]);
+                }
+                var expected = closest == Integer.MAX_VALUE ? UNREACHABLE : closest + 1;
+                if (distance != expected)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    //Return the cells the distances are measured to
+    public int[] getTargets() {
+        return targets.clone();
+    }
+
+    //Return the number of steps from the cell to the nearest target or UNREACHABLE
+    public int getDistance(int cell) {
+        return distances[cell];
+    }
+
+    public int getDistance(int row, int column) {
+        return distances[row * width + column];
+    }
+
+    /*
+     * Return a shortest path from the cell to the nearest target or an
+     * empty array if there is none. Every step goes to a neighbor one
+     * step closer, which always exists on the way down
+     */
+    public int[] route(int start) {
+        if (start < 0 || start >= distances.length)
+            throw new IllegalArgumentException("The cell is outside of the maze");
+        var distance = distances[start];
+        if (distance == UNREACHABLE)
+            return new int[0];
+        var path = new int[distance + 1];
+        var cur = start;
+        path[0] = cur;
+        for (int i = 1; i <= distance; i++) {
+            var row = cur / width;
+            var column = cur % width;
+            for (var delta : DELTAS) {
+                var r = row + delta[0];
+                var c = column + delta[1];
+                if (r >= 0 && r < height && c >= 0 && c < width
+                    && distances[r * width + c] == distance - i) {
+                    cur = r * width + c;
+                    break;
+                }
+            }
+            path[i] = cur;
+        }
+        return path;
+    }
+
+    //Return the distances of all the cells, which the caller must not change
+    public int[] getDistances() {
+        return distances;
+    }
+}
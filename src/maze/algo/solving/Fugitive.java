@@ -1,130 +1,159 @@
 /*  Aiden Donavan
  *  6/7/2023
  *  This class is used for finding an escape path from the maze
- *  entrance to the maze exit. 
+ *  entrance to the maze exit.
  */
 package maze.algo.solving;
 
-import maze.model.Cell;
+import maze.model.Grid;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
-
-import static java.util.Comparator.comparingInt;
-import static maze.model.Cell.Type.ESCAPE;
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.SOLVE_EXPANDED;
+import static maze.metrics.Metrics.SOLVE_HEAP_PUSHES;
 
 public class Fugitive {
 
     //Moves in all directions from current cell
     private static final int[][] DELTAS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
 
-    //The height of the maze in node
-    private int height;
+    //cost of moving to a neighboring cell
+    private static final int EDGE_COST = 1;
 
-    //The width of the maze in node
-    private int width;
+    //The height of the maze in cells
+    private final int height;
 
-    //2-dimensional array of nodes representing a maze
-    private Node[][] grid;
+    //The width of the maze in cells
+    private final int width;
 
-    //Start point
-    private Node start;
+    //Walls of the maze
+    private final Grid grid;
 
-    //End point
-    private Node end;
+    //Index of the start cell
+    private final int start;
 
-    //Prioritizes nodes that are estimated to take the minimum length to end
-    private PriorityQueue<Node> open = new PriorityQueue<>(comparingInt(Node::getFinalCost));
+    //Index of the end cell
+    private final int end;
 
-    //Already processed nodes
-    private Set<Node> closed = new HashSet<>();
+    //Cost of the best known path from start to every opened cell
+    private final int[] g;
 
-    //Makes a grid of nodes
-    public Fugitive(Cell[][] grid, Cell start, Cell end) {
-        this.height = grid.length;
-        this.width = grid[0].length;
-        this.grid = new Node[height][width];
-        this.start = new Node(start.getRow(), start.getColumn(), false);
-        this.end = new Node(end.getRow(), end.getColumn(), false);
-        createNodes(grid);
-    }
+    //Previous cell on the best known path, used to reconstruct the path
+    private final int[] parent;
 
-    //Calculates estimated length to end from each node
-    private void createNodes(Cell[][] grid) {
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                var node = new Node(i, j, grid[i][j].isWall());
-                node.calcHeuristicTo(end);
-                this.grid[i][j] = node;
-            }
-        }
+    //Already processed cells, one bit per cell
+    private final long[] closed;
+
+    //Opened cells ordered by the estimated cost of the path through them
+    private final IndexedMinHeap open;
+
+    //Number of cells taken from the open set by the search
+    private long expanded;
+
+    //Largest number of cells in the open set at once
+    private long peakOpen;
+
+    /*
+     * Prepares a search on the grid between the cells with the given
+     * indices. The index of a cell is row * width + column
+     */
+    public Fugitive(Grid grid, int start, int end) {
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        this.grid = grid;
+        this.start = start;
+        this.end = end;
+        var size = Math.multiplyExact(height, width);
+        g = new int[size];
+        parent = new int[size];
+        closed = new long[(size + 63) >>> 6];
+        open = new IndexedMinHeap(size);
     }
 
-    //Uses A* algorithm to find path
-    public List<Cell> findEscape() {
-        open.add(start);
+    /*
+     * Uses A* algorithm to find path. Return indices of the cells
+     * from the start to the end or an empty array if there is no path
+     */
+    public int[] findEscape() {
+        parent[start] = start;
+        open.push(start, key(0, heuristic(start)));
+        var path = new int[0];
         while (!open.isEmpty()) {
             var cur = open.poll();
-            if (isEnd(cur))
-                return reconstructPath(cur);
-            closed.add(cur);
+            expanded++;
+            if (cur == end) {
+                path = reconstructPath();
+                break;
+            }
+            closed[cur >>> 6] |= 1L << cur;
             updateNeighbors(cur);
+            peakOpen = Math.max(peakOpen, open.size());
         }
-        return new ArrayList<>();
+        metrics().count(SOLVE_EXPANDED, expanded);
+        metrics().count(SOLVE_HEAP_PUSHES, open.getPushes());
+        return path;
     }
 
-    //Check if the end is a node
-    private boolean isEnd(Node currentNode) {
-        return currentNode.equals(end);
+    public long getExpanded() {
+        return expanded;
     }
 
-    //Reconstructs path from given node (current node)
-    private List<Cell> reconstructPath(Node cur) {
-        var path = new LinkedList<Cell>();
-        path.add(toCell(cur));
-        while (cur.getParent() != cur) {
-            var parent = cur.getParent();
-            path.addFirst(toCell(parent));
-            cur = parent;
-        }
-        return path;
+    public long getPeakOpen() {
+        return peakOpen;
     }
 
-    //Converts node back to cell
-    private Cell toCell(Node node) {
-        return new Cell(node.getRow(), node.getColumn(), ESCAPE);
+    //Reconstructs path from the start to the end
+    private int[] reconstructPath() {
+        var path = new int[g[end] + 1];
+        var cur = end;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = cur;
+            cur = parent[cur];
+        }
+        return path;
     }
 
-    //Updates final length from neighboring nodes
-    private void updateNeighbors(Node cur) {
+    //Opens neighbors or lowers their cost if the current cell is a better parent
+    private void updateNeighbors(int cur) {
+        var curRow = cur / width;
+        var curColumn = cur % width;
+        var cost = g[cur] + EDGE_COST;
         for (var delta : DELTAS) {
-            var row = cur.getRow() + delta[0];
-            var column = cur.getColumn() + delta[1];
-            if (inBounds(row, column)) {
-                var node = grid[row][column];
-                if (!node.isWall() && !closed.contains(node)) {
-                    if (open.contains(node)) {
-                        if (node.hasBetterPath(cur)) {
-                            open.remove(node);
-                        } else {
-                            continue;
-                        }
-                    }
-                    node.updatePath(cur);
-                    open.add(node);
-                }
-            }
+            var row = curRow + delta[0];
+            var column = curColumn + delta[1];
+            if (!inBounds(row, column) || grid.isWall(row, column))
+                continue;
+            var next = row * width + column;
+            if (isClosed(next))
+                continue;
+            if (open.contains(next) && g[next] <= cost)
+                continue;
+            g[next] = cost;
+            parent[next] = cur;
+            open.push(next, key(cost, cost + heuristic(next)));
         }
     }
 
+    private boolean isClosed(int index) {
+        return (closed[index >>> 6] & 1L << index) != 0;
+    }
+
+    //Estimates length of the path from the given cell to the end
+    private int heuristic(int index) {
+        return Math.abs(end / width - index / width)
+            + Math.abs(end % width - index % width);
+    }
+
+    /*
+     * Orders cells by the final cost first and prefers the ones
+     * farther from the start when final costs are equal
+     */
+    private static long key(int g, int f) {
+        return (long) f << 32 | (Integer.MAX_VALUE - g);
+    }
+
     //Checks if cells are in bounds of array
     private boolean inBounds(int row, int column) {
         return row >= 0 && row < height
             && column >= 0 && column < width;
     }
 }
-
@@ -0,0 +1,217 @@
+/*
+ *  This class keeps a shortest path between two cells up to date while
+ *  walls are opened and closed, with Lifelong Planning A*. Besides the
+ *  cost of the best known path to every cell (g) it keeps the cost one
+ *  step from its best neighbor (rhs). A change of the walls only makes
+ *  the cells around it inconsistent, where the two differ, and a repair
+ *  processes inconsistent cells in the order of A* until the path to the
+ *  end is consistent again. Cells far from the changes and from the path
+ *  keep their costs, so a repair usually touches a small part of the
+ *  maze, and any number of changes are repaired in one pass.
+ *
+ *  Closing a cell of a perfect maze which lies on the path cuts the maze
+ *  in two, and then every cell behind the cut has to be updated.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.SOLVE_EXPANDED;
+import static maze.metrics.Metrics.SOLVE_HEAP_PUSHES;
+
+public class IncrementalSolver {
+
+    //Cost of cells which cannot be reached
+    private static final int INFINITY = Integer.MAX_VALUE >> 1;
+
+    //Moves in all directions from current cell
+    private static final int[][] DELTAS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+
+    //The height of the maze in cells
+    private final int height;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Index of the start cell
+    private final int start;
+
+    //Index of the end cell
+    private final int end;
+
+    //Walls of the maze as they are now
+    private Grid grid;
+
+    //Cost of the best known path from start to every cell
+    private final int[] g;
+
+    //Cost of the path through the best neighbor of every cell
+    private final int[] rhs;
+
+    //Inconsistent cells ordered by the estimated cost of the path through them
+    private final IndexedMinHeap open;
+
+    //Number of cells taken from the open set by the last repair
+    private long expanded;
+
+    /*
+     * Prepares a search on the grid between the cells with the given
+     * indices. The index of a cell is row * width + column
+     */
+    public IncrementalSolver(Grid grid, int start, int end) {
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        var size = Math.multiplyExact(height, width);
+        if (start < 0 || start >= size || end < 0 || end >= size)
+            throw new IllegalArgumentException("The cells are outside of the maze");
+        this.start = start;
+        this.end = end;
+        this.grid = grid;
+        g = new int[size];
+        rhs = new int[size];
+        Arrays.fill(g, INFINITY);
+        Arrays.fill(rhs, INFINITY);
+        open = new IndexedMinHeap(size);
+        updateCell(start);
+    }
+
+    /*
+     * Return indices of the cells of a shortest path from the start to
+     * the end or an empty array if there is no path. The first call
+     * searches like A*, later calls only repair what was changed
+     */
+    public int[] findPath() {
+        repair();
+        return path();
+    }
+
+    /*
+     * Takes the walls as they are now in the grid, which may be another
+     * grid of the same size, after the given cells have been opened or
+     * closed. Return the repaired path like findPath
+     */
+    public int[] update(Grid grid, int... changed) {
+        if (grid.getHeight() != height || grid.getWidth() != width)
+            throw new IllegalArgumentException("The grid has another size");
+        this.grid = grid;
+        for (var cell : changed) {
+            if (cell < 0 || cell >= g.length)
+                throw new IllegalArgumentException("The cells are outside of the maze");
+            updateCell(cell);
+            updateNeighbors(cell);
+        }
+        return findPath();
+    }
+
+    //Return the number of cells taken from the open set by the last repair
+    public long getExpanded() {
+        return expanded;
+    }
+
+    //Processes inconsistent cells until the cost of the end is final
+    private void repair() {
+        expanded = 0;
+        var pushes = open.getPushes();
+        while (!open.isEmpty() && (open.minKey() < key(end) || rhs[end] != g[end])) {
+            var cur = open.poll();
+            expanded++;
+            if (g[cur] > rhs[cur]) {
+                g[cur] = rhs[cur];
+            } else {
+                g[cur] = INFINITY;
+                updateCell(cur);
+            }
+            updateNeighbors(cur);
+        }
+        metrics().count(SOLVE_EXPANDED, expanded);
+        metrics().count(SOLVE_HEAP_PUSHES, open.getPushes() - pushes);
+    }
+
+    //Follows the best neighbors back from the end to the start
+    private int[] path() {
+        if (g[end] >= INFINITY)
+            return new int[0];
+        var path = new int[g[end] + 1];
+        var cur = end;
+        for (int i = path.length - 1; i > 0; i--) {
+            path[i] = cur;
+            var best = -1;
+            for (int direction = 0; direction < DELTAS.length; direction++) {
+                var next = step(cur, direction);
+                if (next >= 0 && (best < 0 || g[next] < g[best]))
+                    best = next;
+            }
+            cur = best;
+        }
+        path[0] = cur;
+        return path;
+    }
+
+    /*
+     * Computes the cost of the cell through its best neighbor and puts
+     * the cell into the open set if it differs from its known cost
+     */
+    private void updateCell(int cell) {
+        if (cell == start) {
+            rhs[cell] = isWall(cell) ? INFINITY : 0;
+        } else {
+            var best = INFINITY;
+            if (!isWall(cell)) {
+                for (int direction = 0; direction < DELTAS.length; direction++) {
+                    var next = step(cell, direction);
+                    if (next >= 0 && g[next] + 1 < best)
+                        best = g[next] + 1;
+                }
+            }
+            rhs[cell] = best;
+        }
+        if (open.contains(cell))
+            open.remove(cell);
+        if (g[cell] != rhs[cell])
+            open.push(cell, key(cell));
+    }
+
+    //Updates every cell next to the cell, passages or walls
+    private void updateNeighbors(int cell) {
+        var row = cell / width;
+        var column = cell % width;
+        for (var delta : DELTAS) {
+            var r = row + delta[0];
+            var c = column + delta[1];
+            if (r >= 0 && r < height && c >= 0 && c < width)
+                updateCell(r * width + c);
+        }
+    }
+
+    /*
+     * Orders cells by the estimated cost of the path through them first
+     * and by the cost from the start second
+     */
+    private long key(int cell) {
+        var cost = Math.min(g[cell], rhs[cell]);
+        return ((long) cost + heuristic(cell)) << 31 | cost;
+    }
+
+    //Estimates length of the path from the given cell to the end
+    private int heuristic(int cell) {
+        return Math.abs(end / width - cell / width)
+            + Math.abs(end % width - cell % width);
+    }
+
+    private boolean isWall(int cell) {
+        return grid.isWall(cell / width, cell % width);
+    }
+
+    //Return the passage cell next to the cell in the direction or -1 if there is none
+    private int step(int cell, int direction) {
+        var row = cell / width + DELTAS[direction][0];
+        var column = cell % width + DELTAS[direction][1];
+        if (row < 0 || row >= height || column < 0 || column >= width
+            || grid.isWall(row, column))
+            return -1;
+        return row * width + column;
+    }
+}
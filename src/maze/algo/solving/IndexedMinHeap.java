@@ -0,0 +1,149 @@
+/*
+ *  This class is a binary min heap of cell indices ordered by long keys.
+ *  It remembers where every index is stored in the heap, so checking
+ *  membership, lowering the key of an index and removing an index take
+ *  no linear scans.
+ */
+package maze.algo.solving;
+
+import java.util.Arrays;
+
+class IndexedMinHeap {
+
+    //Initial capacity of the heap arrays
+    private static final int INITIAL_CAPACITY = 16;
+
+    //Indices in heap order
+    private int[] items = new int[INITIAL_CAPACITY];
+
+    //Keys in heap order, keys[i] belongs to items[i]
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    //Position of every index in the heap plus one, 0 if it is not in the heap
+    private final int[] positions;
+
+    //Number of indices in the heap
+    private int size;
+
+    //Number of insertions and key decreases so far
+    private long pushes;
+
+    //Creates an empty heap for indices from 0 to capacity - 1
+    IndexedMinHeap(int capacity) {
+        positions = new int[capacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    //Return the number of insertions and key decreases so far
+    long getPushes() {
+        return pushes;
+    }
+
+    boolean contains(int index) {
+        return positions[index] != 0;
+    }
+
+    //Return the key of an index which is in the heap
+    long keyOf(int index) {
+        return keys[positions[index] - 1];
+    }
+
+    //Adds a new index or lowers the key of the one already in the heap
+    void push(int index, long key) {
+        pushes++;
+        if (contains(index)) {
+            decreaseKey(index, key);
+            return;
+        }
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        items[size] = index;
+        keys[size] = key;
+        positions[index] = ++size;
+        siftUp(size - 1);
+    }
+
+    //Lowers the key of an index, a greater key is ignored
+    void decreaseKey(int index, long key) {
+        var at = positions[index] - 1;
+        if (key < keys[at]) {
+            keys[at] = key;
+            siftUp(at);
+        }
+    }
+
+    //Return the minimal key of a heap which is not empty
+    long minKey() {
+        return keys[0];
+    }
+
+    //Removes an index which is in the heap
+    void remove(int index) {
+        var at = positions[index] - 1;
+        positions[index] = 0;
+        if (--size > at) {
+            var item = items[size];
+            move(item, keys[size], at);
+            siftUp(at);
+            siftDown(positions[item] - 1);
+        }
+    }
+
+    //Removes the index with the minimal key and returns it
+    int poll() {
+        var top = items[0];
+        positions[top] = 0;
+        if (--size > 0) {
+            move(items[size], keys[size], 0);
+            siftDown(0);
+        }
+        return top;
+    }
+
+    //Moves the element at the given position up while it is less than its parent
+    private void siftUp(int at) {
+        var item = items[at];
+        var key = keys[at];
+        while (at > 0) {
+            var parent = (at - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            move(items[parent], keys[parent], at);
+            at = parent;
+        }
+        move(item, key, at);
+    }
+
+    //Moves the element at the given position down while it is greater than a child
+    private void siftDown(int at) {
+        var item = items[at];
+        var key = keys[at];
+        var half = size >>> 1;
+        while (at < half) {
+            var child = 2 * at + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+            if (key <= keys[child])
+                break;
+            move(items[child], keys[child], at);
+            at = child;
+        }
+        move(item, key, at);
+    }
+
+    //Puts an element to the given position of the heap
+    private void move(int item, long key, int at) {
+        items[at] = item;
+        keys[at] = key;
+        positions[item] = at + 1;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ *  This class finds a shortest path with Jump Point Search for grids
+ *  where moves go in four directions. Of all the shortest paths it only
+ *  follows the ones which turn from vertical to horizontal moves as early
+ *  as possible, and it jumps along straight lines without stopping at
+ *  the cells in between:
+ *
+ *    - a horizontal move goes on until the cell behind it above or below
+ *      is a wall while the cell above or below it is not, so the path
+ *      has to turn there, and only those turns are taken
+ *    - a vertical move goes on until a horizontal jump from the cell
+ *      would stop somewhere, and then it may turn either way
+ *
+ *  Only the cells where jumps stop are opened, which in open rooms are
+ *  a few cells instead of every cell of the room. The found path has the
+ *  same length as the one of Fugitive, though it may take other cells.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.SOLVE_EXPANDED;
+import static maze.metrics.Metrics.SOLVE_HEAP_PUSHES;
+
+public class JumpPointSearch {
+
+    //The height of the maze in cells
+    private final int height;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Walls of the maze
+    private final Grid grid;
+
+    //Index of the start cell
+    private final int start;
+
+    //Index of the end cell
+    private final int end;
+
+    //Cost of the best known path from start to every opened cell
+    private final int[] g;
+
+    //Previous jump point on the best known path
+    private final int[] parent;
+
+    //Already processed cells, one bit per cell
+    private final long[] closed;
+
+    //Opened cells ordered by the estimated cost of the path through them
+    private final IndexedMinHeap open;
+
+    //Number of cells taken from the open set by the search
+    private long expanded;
+
+    //Largest number of cells in the open set at once
+    private long peakOpen;
+
+    /*
+     * Prepares a search on the grid between the cells with the given
+     * indices. The index of a cell is row * width + column
+     */
+    public JumpPointSearch(Grid grid, int start, int end) {
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        this.grid = grid;
+        this.start = start;
+        this.end = end;
+        var size = Math.multiplyExact(height, width);
+        g = new int[size];
+        parent = new int[size];
+        closed = new long[(size + 63) >>> 6];
+        open = new IndexedMinHeap(size);
+    }
+
+    /*
+     * Uses A* over the jump points to find path. Return indices of the
+     * cells from the start to the end or an empty array if there is no path
+     */
+    public int[] findEscape() {
+        var path = new int[0];
+        if (isWall(start / width, start % width) || isWall(end / width, end % width))
+            return path;
+        parent[start] = start;
+        open.push(start, key(0, heuristic(start)));
+        while (!open.isEmpty()) {
+            var cur = open.poll();
+            expanded++;
+            if (cur == end) {
+                path = reconstructPath();
+                break;
+            }
+            closed[cur >>> 6] |= 1L << cur;
+            jumpFrom(cur);
+            peakOpen = Math.max(peakOpen, open.size());
+        }
+        metrics().count(SOLVE_EXPANDED, expanded);
+        metrics().count(SOLVE_HEAP_PUSHES, open.getPushes());
+        return path;
+    }
+
+    public long getExpanded() {
+        return expanded;
+    }
+
+    public long getPeakOpen() {
+        return peakOpen;
+    }
+
+    /*
+     * Jumps in the directions the path may take from the jump point, which
+     * depend on the direction it was reached from
+     */
+    private void jumpFrom(int cur) {
+        var row = cur / width;
+        var column = cur % width;
+        if (cur == start) {
+            open(cur, jumpVertically(row, column, -1));
+            open(cur, jumpVertically(row, column, 1));
+            open(cur, jumpHorizontally(row, column, -1));
+            open(cur, jumpHorizontally(row, column, 1));
+            return;
+        }
+        var from = parent[cur];
+        if (from / width == row) {
+            var dc = Integer.signum(column - from % width);
+            open(cur, jumpHorizontally(row, column, dc));
+            if (isForced(row, column, dc, -1))
+                open(cur, jumpVertically(row, column, -1));
+            if (isForced(row, column, dc, 1))
+                open(cur, jumpVertically(row, column, 1));
+        } else {
+            open(cur, jumpVertically(row, column, Integer.signum(row - from / width)));
+            open(cur, jumpHorizontally(row, column, -1));
+            open(cur, jumpHorizontally(row, column, 1));
+        }
+    }
+
+    /*
+     * Checks if a horizontal move in the direction dc through the cell
+     * must turn to the row dr away, because the cell behind it in that
+     * row is a wall while the cell next to it is not
+     */
+    private boolean isForced(int row, int column, int dc, int dr) {
+        return !isWall(row + dr, column) && isWall(row + dr, column - dc);
+    }
+
+    /*
+     * Moves from the cell along its row in the direction dc. Return the
+     * first cell where the path must turn or the end, or -1 if a wall
+     * or the border comes first
+     */
+    private int jumpHorizontally(int row, int column, int dc) {
+        while (true) {
+            column += dc;
+            if (isWall(row, column))
+                return -1;
+            var cell = row * width + column;
+            if (cell == end || isForced(row, column, dc, -1) || isForced(row, column, dc, 1))
+                return cell;
+        }
+    }
+
+    /*
+     * Moves from the cell along its column in the direction dr. Return
+     * the first cell from which a horizontal jump stops, or the end, or
+     * -1 if a wall or the border comes first
+     */
+    private int jumpVertically(int row, int column, int dr) {
+        while (true) {
+            row += dr;
+            if (isWall(row, column))
+                return -1;
+            var cell = row * width + column;
+            if (cell == end || jumpHorizontally(row, column, -1) >= 0
+                || jumpHorizontally(row, column, 1) >= 0)
+                return cell;
+        }
+    }
+
+    //Opens the jump point or lowers its cost if the current cell is a better parent
+    private void open(int cur, int next) {
+        if (next < 0 || isClosed(next))
+            return;
+        var cost = g[cur] + distance(cur, next);
+        if (open.contains(next) && g[next] <= cost)
+            return;
+        g[next] = cost;
+        parent[next] = cur;
+        open.push(next, key(cost, cost + heuristic(next)));
+    }
+
+    //Reconstructs path from the start to the end, filling the cells between the jump points
+    private int[] reconstructPath() {
+        var path = new int[g[end] + 1];
+        var cur = end;
+        var i = path.length - 1;
+        while (cur != start) {
+            var from = parent[cur];
+            var step = from / width == cur / width ? Integer.signum(from - cur)
+                                                   : Integer.signum(from - cur) * width;
+            for (int cell = cur; cell != from; cell += step)
+                path[i--] = cell;
+            cur = from;
+        }
+        path[i] = start;
+        return path;
+    }
+
+    private boolean isClosed(int index) {
+        return (closed[index >>> 6] & 1L << index) != 0;
+    }
+
+    //Checks if the cell is a wall, the cells outside of the grid are walls too
+    private boolean isWall(int row, int column) {
+        return row < 0 || row >= height || column < 0 || column >= width
+            || grid.isWall(row, column);
+    }
+
+    //Return the number of steps between two cells in the same row or column
+    private int distance(int a, int b) {
+        return Math.abs(a / width - b / width) + Math.abs(a % width - b % width);
+    }
+
+    //Estimates length of the path from the given cell to the end
+    private int heuristic(int index) {
+        return distance(index, end);
+    }
+
+    /*
+     * Orders cells by the final cost first and prefers the ones
+     * farther from the start when final costs are equal
+     */
+    private static long key(int g, int f) {
+        return (long) f << 32 | (Integer.MAX_VALUE - g);
+    }
+}
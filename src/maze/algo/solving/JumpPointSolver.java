@@ -0,0 +1,20 @@
+/*
+ *  This solver runs Jump Point Search, which suits grids with open rooms.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+public class JumpPointSolver implements Solver {
+
+    @Override
+    public SearchResult search(Grid grid, int start, int end) {
+        var time = System.nanoTime();
+        if (!Moves.checkEnds(grid, start, end))
+            return SearchResult.finish(new int[0], 0, 0, time);
+        var search = new JumpPointSearch(grid, start, end);
+        var path = search.findEscape();
+        return new SearchResult(path, search.getExpanded(), search.getPeakOpen(),
+                                System.nanoTime() - time);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ *  This class compresses the passages of a maze into a weighted graph.
+ *  Its nodes are the junctions, the dead ends and the chosen terminal
+ *  cells, such as the entrance and the exit, and its edges are the
+ *  corridors between them weighted by their length. Most passage cells of
+ *  a maze lie in corridors, so the graph is much smaller than the grid.
+ *
+ *  Paths are searched with A* over the graph and then expanded back into
+ *  the cells of the corridors. Nothing is stored per grid cell: the nodes
+ *  are kept sorted by their cell index and found by binary search.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.SOLVE_EXPANDED;
+import static maze.metrics.Metrics.SOLVE_HEAP_PUSHES;
+
+public class JunctionGraph {
+
+    //Moves in all directions from current cell
+    private static final int[][] DELTAS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+
+    //The height of the maze in cells
+    private final int height;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Walls of the maze
+    private final Grid grid;
+
+    //Cells which are nodes even inside a corridor
+    private final int[] terminals;
+
+    //Cell of every node in increasing order
+    private int[] cells;
+
+    //Edges of the node i are the ones from offsets[i] to offsets[i + 1]
+    private int[] offsets;
+
+    //Node at the other end of every edge
+    private int[] targets;
+
+    //Number of steps along every edge
+    private int[] lengths;
+
+    //Index of the first move of every edge in DELTAS
+    private byte[] directions;
+
+    /*
+     * Builds the graph for the passages of the grid. The terminals are
+     * indices of cells, row * width + column, which become nodes even
+     * if they are in the middle of a corridor
+     */
+    public JunctionGraph(Grid grid, int... terminals) {
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        this.grid = grid;
+        this.terminals = terminals.clone();
+        Math.multiplyExact(height, width);
+        findNodes();
+        findEdges();
+    }
+
+    //Return the number of nodes
+    public int getNodeCount() {
+        return cells.length;
+    }
+
+    //Return the number of edges, every corridor is counted in both directions
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    //Collects the passage cells which are not in the middle of a corridor
+    private void findNodes() {
+        var found = new int[16];
+        var count = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                var cell = i * width + j;
+                if (!grid.isWall(i, j) && isNode(cell)) {
+                    if (count == found.length)
+                        found = Arrays.copyOf(found, 2 * count);
+                    found[count++] = cell;
+                }
+            }
+        }
+        cells = Arrays.copyOf(found, count);
+    }
+
+    //Follows every corridor from every node to the node at its other end
+    private void findEdges() {
+        offsets = new int[cells.length + 1];
+        var found = new int[16];
+        var count = 0;
+        for (int node = 0; node < cells.length; node++) {
+            offsets[node] = count / 3;
+            for (int direction = 0; direction < DELTAS.length; direction++) {
+                var next = step(cells[node], direction);
+                if (next < 0)
+                    continue;
+                var end = follow(cells[node], next);
+                var target = Arrays.binarySearch(cells, (int) (end >>> 32));
+                if (target == node)
+                    continue;
+                if (count + 3 > found.length)
+                    found = Arrays.copyOf(found, 2 * found.length);
+                found[count++] = target;
+                found[count++] = (int) end;
+                found[count++] = direction;
+            }
+        }
+        offsets[cells.length] = count / 3;
+        var edges = count / 3;
+        targets = new int[edges];
+        lengths = new int[edges];
+        directions = new byte[edges];
+        for (int e = 0; e < edges; e++) {
+            targets[e] = found[3 * e];
+            lengths[e] = found[3 * e + 1];
+            directions[e] = (byte) found[3 * e + 2];
+        }
+    }
+
+    /*
+     * Walks along the corridor from the node through the next cell until
+     * it reaches a node. Return that node's cell in the high half and the
+     * number of steps in the low half
+     */
+    private long follow(int from, int next) {
+        var prev = from;
+        var cur = next;
+        var steps = 1;
+        while (!isNode(cur)) {
+            var following = -1;
+            for (int direction = 0; direction < DELTAS.length; direction++) {
+                var cell = step(cur, direction);
+                if (cell >= 0 && cell != prev) {
+                    following = cell;
+                    break;
+                }
+            }
+            prev = cur;
+            cur = following;
+            steps++;
+        }
+        return (long) cur << 32 | steps;
+    }
+
+    /*
+     * Return indices of the cells from the start to the end or an empty
+     * array if there is no path. Both cells must be nodes of the graph,
+     * which passage cells given as terminals always are
+     */
+    public int[] findPath(int start, int end) {
+        var from = Arrays.binarySearch(cells, start);
+        var to = Arrays.binarySearch(cells, end);
+        if (from < 0 || to < 0) {
+            if (!isPassage(start) || !isPassage(end))
+                return new int[0];
+            throw new IllegalArgumentException(
+                "Both ends of the path must be nodes of the graph");
+        }
+        var g = new int[cells.length];
+        var parentEdge = new int[cells.length];
+        var parentNode = new int[cells.length];
+        var closed = new long[(cells.length + 63) >>> 6];
+        var open = new IndexedMinHeap(cells.length);
+        parentNode[from] = from;
+        open.push(from, key(0, heuristic(from, to)));
+        var expanded = 0;
+        var path = new int[0];
+        while (!open.isEmpty()) {
+            var cur = open.poll();
+            expanded++;
+            if (cur == to) {
+                path = expandPath(to, g, parentEdge, parentNode);
+                break;
+            }
+            closed[cur >>> 6] |= 1L << cur;
+            for (int e = offsets[cur]; e < offsets[cur + 1]; e++) {
+                var next = targets[e];
+                if ((closed[next >>> 6] & 1L << next) != 0)
+                    continue;
+                var cost = g[cur] + lengths[e];
+                if (open.contains(next) && g[next] <= cost)
+                    continue;
+                g[next] = cost;
+                parentEdge[next] = e;
+                parentNode[next] = cur;
+                open.push(next, key(cost, cost + heuristic(next, to)));
+            }
+        }
+        metrics().count(SOLVE_EXPANDED, expanded);
+        metrics().count(SOLVE_HEAP_PUSHES, open.getPushes());
+        return path;
+    }
+
+    //Walks the corridors of the found edges to list every cell of the path
+    private int[] expandPath(int to, int[] g, int[] parentEdge, int[] parentNode) {
+        var path = new int[g[to] + 1];
+        var node = to;
+        while (parentNode[node] != node) {
+            var edge = parentEdge[node];
+            var from = parentNode[node];
+            var i = g[from];
+            var prev = cells[from];
+            var cur = step(prev, directions[edge]);
+            path[i] = prev;
+            for (int k = 1; k < lengths[edge]; k++) {
+                path[i + k] = cur;
+                var next = -1;
+                for (int direction = 0; direction < DELTAS.length; direction++) {
+                    var cell = step(cur, direction);
+                    if (cell >= 0 && cell != prev) {
+                        next = cell;
+                        break;
+                    }
+                }
+                prev = cur;
+                cur = next;
+            }
+            node = from;
+        }
+        path[g[to]] = cells[to];
+        return path;
+    }
+
+    //Checks if the passage cell is a junction, a dead end or a terminal
+    private boolean isNode(int cell) {
+        for (var terminal : terminals) {
+            if (terminal == cell)
+                return true;
+        }
+        var degree = 0;
+        for (int direction = 0; direction < DELTAS.length; direction++) {
+            if (step(cell, direction) >= 0)
+                degree++;
+        }
+        return degree != 2;
+    }
+
+    //Checks if the index is a passage cell of the grid
+    private boolean isPassage(int cell) {
+        return cell >= 0 && cell < height * width
+            && !grid.isWall(cell / width, cell % width);
+    }
+
+    //Return the passage cell next to the cell in the direction or -1 if there is none
+    private int step(int cell, int direction) {
+        var row = cell / width + DELTAS[direction][0];
+        var column = cell % width + DELTAS[direction][1];
+        if (row < 0 || row >= height || column < 0 || column >= width
+            || grid.isWall(row, column))
+            return -1;
+        return row * width + column;
+    }
+
+    //Estimates length of the path between two nodes
+    private int heuristic(int node, int target) {
+        var a = cells[node];
+        var b = cells[target];
+        return Math.abs(a / width - b / width) + Math.abs(a % width - b % width);
+    }
+
+    /*
+     * Orders nodes by the final cost first and prefers the ones
+     * farther from the start when final costs are equal
+     */
+    private static long key(int g, int f) {
+        return (long) f << 32 | (Integer.MAX_VALUE - g);
+    }
+}
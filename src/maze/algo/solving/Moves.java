@@ -0,0 +1,65 @@
+/*
+ *  This class holds the moves between the cells of a grid shared by the
+ *  solvers, which address cells by row * width + column.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+final class Moves {
+
+    //Moves in all directions from a cell in clockwise order: up, right, down and left
+    private static final int[][] DELTAS = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}};
+
+    //Number of directions
+    static final int DIRECTIONS = DELTAS.length;
+
+    private Moves() {
+    }
+
+    //Return the passage cell next to the cell in the direction or -1 if there is none
+    static int step(Grid grid, int cell, int direction) {
+        var width = grid.getWidth();
+        var row = cell / width + DELTAS[direction][0];
+        var column = cell % width + DELTAS[direction][1];
+        if (row < 0 || row >= grid.getHeight() || column < 0 || column >= width
+            || grid.isWall(row, column))
+            return -1;
+        return row * width + column;
+    }
+
+    /*
+     * Checks that both cells are inside of the grid. Return false if one
+     * of them is a wall, so no path can exist
+     */
+    static boolean checkEnds(Grid grid, int start, int end) {
+        var size = (long) grid.getHeight() * grid.getWidth();
+        if (start < 0 || start >= size || end < 0 || end >= size)
+            throw new IllegalArgumentException("The cells are outside of the maze");
+        var width = grid.getWidth();
+        return !grid.isWall(start / width, start % width)
+            && !grid.isWall(end / width, end % width);
+    }
+
+    //Return the cells from the start to the end by following the parents back from the end
+    static int[] trace(int[] parent, int start, int end) {
+        var length = 1;
+        for (int cur = end; cur != start; cur = parent[cur])
+            length++;
+        var path = new int[length];
+        var cur = end;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cur;
+            cur = parent[cur];
+        }
+        return path;
+    }
+
+    static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+}
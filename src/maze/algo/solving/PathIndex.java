@@ -0,0 +1,218 @@
+/*
+ *  This class answers path queries between any two cells of a perfect
+ *  maze. The passages of such a maze form a tree, so the path between two
+ *  cells goes through their lowest common ancestor and can be found
+ *  without searching.
+ *
+ *  The tree is rooted by a breadth-first walk. Besides its parent and depth
+ *  every cell keeps one jump pointer to an ancestor (the skew-binary scheme
+ *  of binary lifting), which reaches any ancestor in O(log n) steps while
+ *  using constant memory per cell instead of a table of log n ancestors.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class PathIndex {
+
+    //Moves in all directions from current cell
+    private static final int[][] DELTAS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+
+    //Number of queries of a batch which are worth splitting between cores
+    private static final int PARALLEL_BATCH = 1024;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Node of every cell of the grid, -1 for walls
+    private final int[] nodes;
+
+    //Cell of every node
+    private final int[] cells;
+
+    //Parent of every node, the roots are their own parents
+    private final int[] parent;
+
+    //Ancestor of every node used to skip many parents at once
+    private final int[] jump;
+
+    //Distance of every node from the root of its tree
+    private final int[] depth;
+
+    /*
+     * Builds the index for the passages of the grid. The passages must
+     * not have cycles, otherwise the paths would not be unique.
+     */
+    public PathIndex(Grid grid) {
+        var height = grid.getHeight();
+        width = grid.getWidth();
+        nodes = new int[Math.multiplyExact(height, width)];
+        var count = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++)
+                nodes[i * width + j] = grid.isWall(i, j) ? -1 : count++;
+        }
+        cells = new int[count];
+        parent = new int[count];
+        jump = new int[count];
+        depth = new int[count];
+        Arrays.fill(parent, -1);
+        for (int cell = 0; cell < nodes.length; cell++) {
+            if (nodes[cell] >= 0)
+                cells[nodes[cell]] = cell;
+        }
+        buildTrees(height);
+    }
+
+    /*
+     * Roots every tree of passages at its first cell and walks it in
+     * breadth-first order, so every parent is finished before its children.
+     */
+    private void buildTrees(int height) {
+        var queue = new int[cells.length];
+        var edges = 0L;
+        var trees = 0;
+        for (int root = 0; root < cells.length; root++) {
+            if (parent[root] >= 0)
+                continue;
+            trees++;
+            parent[root] = root;
+            jump[root] = root;
+            var head = 0;
+            var tail = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                var node = queue[head++];
+                var row = cells[node] / width;
+                var column = cells[node] % width;
+                for (var delta : DELTAS) {
+                    var r = row + delta[0];
+                    var c = column + delta[1];
+                    if (r < 0 || r >= height || c < 0 || c >= width)
+                        continue;
+                    var next = nodes[r * width + c];
+                    if (next < 0)
+                        continue;
+                    edges++;
+                    if (parent[next] >= 0)
+                        continue;
+                    attach(next, node);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        if (edges / 2 != cells.length - trees) {
+            throw new IllegalStateException(
+                "The maze has cycles, so paths between cells are not unique");
+        }
+    }
+
+    //Makes the node a child of the parent and sets its jump pointer
+    private void attach(int node, int up) {
+        parent[node] = up;
+        depth[node] = depth[up] + 1;
+        var upJump = jump[up];
+        if (depth[up] - depth[upJump] == depth[upJump] - depth[jump[upJump]]) {
+            jump[node] = jump[upJump];
+        } else {
+            jump[node] = up;
+        }
+    }
+
+    /*
+     * Return the number of steps between two cells given by their
+     * indices, row * width + column, or -1 if there is no path
+     */
+    public int distance(int start, int end) {
+        var a = nodeOf(start);
+        var b = nodeOf(end);
+        if (a < 0 || b < 0)
+            return -1;
+        var lca = lowestCommonAncestor(a, b);
+        return lca < 0 ? -1 : depth[a] + depth[b] - 2 * depth[lca];
+    }
+
+    /*
+     * Return indices of the cells from the start to the end or an
+     * empty array if there is no path
+     */
+    public int[] findPath(int start, int end) {
+        var a = nodeOf(start);
+        var b = nodeOf(end);
+        if (a < 0 || b < 0)
+            return new int[0];
+        var lca = lowestCommonAncestor(a, b);
+        if (lca < 0)
+            return new int[0];
+        var path = new int[depth[a] + depth[b] - 2 * depth[lca] + 1];
+        var i = 0;
+        for (var node = a; node != lca; node = parent[node])
+            path[i++] = cells[node];
+        path[i] = cells[lca];
+        var j = path.length - 1;
+        for (var node = b; node != lca; node = parent[node])
+            path[j--] = cells[node];
+        return path;
+    }
+
+    //Return the distances between every pair of the starts and the ends
+    public int[] distances(int[] starts, int[] ends) {
+        return batch(starts, ends)
+            .map(i -> distance(starts[i], ends[i]))
+            .toArray();
+    }
+
+    //Return the paths between every pair of the starts and the ends
+    public int[][] findPaths(int[] starts, int[] ends) {
+        return batch(starts, ends)
+            .mapToObj(i -> findPath(starts[i], ends[i]))
+            .toArray(int[][]::new);
+    }
+
+    //Return indices of the pairs, split between cores for large batches
+    private IntStream batch(int[] starts, int[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException(
+                "There must be as many starts as ends");
+        }
+        var pairs = IntStream.range(0, starts.length);
+        return starts.length >= PARALLEL_BATCH ? pairs.parallel() : pairs;
+    }
+
+    //Return the node of a cell or -1 if the cell is a wall or out of the grid
+    private int nodeOf(int cell) {
+        return cell >= 0 && cell < nodes.length ? nodes[cell] : -1;
+    }
+
+    //Return the lowest common ancestor of two nodes or -1 if they are in different trees
+    private int lowestCommonAncestor(int a, int b) {
+        if (depth[a] < depth[b]) {
+            var swap = a;
+            a = b;
+            b = swap;
+        }
+        a = ancestorAt(a, depth[b]);
+        while (a != b) {
+            if (parent[a] == a)
+                return -1;
+            if (jump[a] != jump[b]) {
+                a = jump[a];
+                b = jump[b];
+            } else {
+                a = parent[a];
+                b = parent[b];
+            }
+        }
+        return a;
+    }
+
+    //Return the ancestor of the node at the given depth
+    private int ancestorAt(int node, int target) {
+        while (depth[node] > target)
+            node = depth[jump[node]] >= target ? jump[node] : parent[node];
+        return node;
+    }
+}
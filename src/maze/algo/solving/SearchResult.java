@@ -0,0 +1,61 @@
+/*
+ *  This class holds a path found by a solver together with the cost of
+ *  finding it: the number of cells visited, the largest number of cells
+ *  waiting in the frontier at once and the time of the search.
+ */
+package maze.algo.solving;
+
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.SOLVE_EXPANDED;
+
+public class SearchResult {
+
+    //Indices of the cells from the start to the end, empty if there is no path
+    private final int[] path;
+
+    //Number of cells taken from the frontier or otherwise processed
+    private final long visited;
+
+    //Largest number of cells in the frontier at once
+    private final long peakFrontier;
+
+    //Time of the search in nanoseconds
+    private final long nanos;
+
+    public SearchResult(int[] path, long visited, long peakFrontier, long nanos) {
+        this.path = path;
+        this.visited = visited;
+        this.peakFrontier = peakFrontier;
+        this.nanos = nanos;
+    }
+
+    //Creates the result of a search which started at the given time and reports it to the metrics
+    static SearchResult finish(int[] path, long visited, long peakFrontier, long startNanos) {
+        metrics().count(SOLVE_EXPANDED, visited);
+        return new SearchResult(path, visited, peakFrontier, System.nanoTime() - startNanos);
+    }
+
+    //Return the found path, which the caller must not change
+    public int[] getPath() {
+        return path;
+    }
+
+    public long getVisited() {
+        return visited;
+    }
+
+    public long getPeakFrontier() {
+        return peakFrontier;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "path " + path.length + " cells, visited " + visited
+            + ", peak frontier " + peakFrontier
+            + String.format(", %.3f ms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ *  This interface is implemented by the engines which find a path between
+ *  two cells of a grid. The cells are given by their indices, row * width
+ *  + column. Solvers keep no state between searches, so one solver may be
+ *  used by any number of threads at once, and every search reports the
+ *  same statistics so the engines can be compared on the same maze.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+public interface Solver {
+
+    /*
+     * Return the cells of a path from the start to the end with the
+     * statistics of the search. The path is empty if there is none
+     */
+    SearchResult search(Grid grid, int start, int end);
+}
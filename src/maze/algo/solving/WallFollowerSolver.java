@@ -0,0 +1,95 @@
+/*
+ *  This solver walks with one hand on the wall, the left or the right
+ *  one, and needs no frontier at all. The dead ends it walks into are
+ *  cut from the path as the walk comes back through them. It reaches the
+ *  end whenever the walls around the start are connected to the walls
+ *  around the end, as in every perfect maze. Otherwise the walk returns
+ *  to where it started and no path is found.
+ */
+package maze.algo.solving;
+
+import maze.model.Grid;
+
+import java.util.Arrays;
+
+public class WallFollowerSolver implements Solver {
+
+    //Indicates if the right hand is on the wall instead of the left one
+    private final boolean rightHand;
+
+    //Creates a solver which keeps the left hand on the wall
+    public WallFollowerSolver() {
+        this(false);
+    }
+
+    public WallFollowerSolver(boolean rightHand) {
+        this.rightHand = rightHand;
+    }
+
+    /*
+     * Walks from the start until the end is reached or the walk is back
+     * in a state it has already been in, a cell entered in the same
+     * direction. The position of every cell on the path is kept, so a
+     * cell entered again cuts the loop behind it
+     */
+    @Override
+    public SearchResult search(Grid grid, int start, int end) {
+        var time = System.nanoTime();
+        if (!Moves.checkEnds(grid, start, end))
+            return SearchResult.finish(new int[0], 0, 0, time);
+        var size = grid.getHeight() * grid.getWidth();
+        var position = new int[size];
+        Arrays.fill(position, -1);
+        var path = new int[16];
+        var length = 0;
+        path[length++] = start;
+        position[start] = 0;
+        var turn = rightHand ? 1 : Moves.DIRECTIONS - 1;
+        var limit = (long) Moves.DIRECTIONS * size;
+        var direction = touchWall(grid, start, turn);
+        var cur = start;
+        var steps = 0L;
+        while (cur != end && steps < limit) {
+            var next = -1;
+            if (direction < 0) {
+                next = Moves.step(grid, cur, 0);
+            } else {
+                var tried = 0;
+                direction = (direction + turn) % Moves.DIRECTIONS;
+                while (tried++ < Moves.DIRECTIONS && (next = Moves.step(grid, cur, direction)) < 0)
+                    direction = (direction + Moves.DIRECTIONS - turn) % Moves.DIRECTIONS;
+                if (next < 0)
+                    break;
+            }
+            steps++;
+            cur = next;
+            if (position[cur] >= 0) {
+                for (int i = position[cur] + 1; i < length; i++)
+                    position[path[i]] = -1;
+                length = position[cur] + 1;
+            } else {
+                if (length == path.length)
+                    path = Arrays.copyOf(path, (int) Math.min(2L * length, size));
+                position[cur] = length;
+                path[length++] = cur;
+            }
+            if (direction < 0)
+                direction = touchWall(grid, cur, turn);
+        }
+        var found = cur == end ? Arrays.copyOf(path, length) : new int[0];
+        return SearchResult.finish(found, steps, 0, time);
+    }
+
+    /*
+     * Return a direction to face in the cell so the hand is on a wall or
+     * -1 if there is no wall around it. Then the walk goes up until the
+     * first wall, as a hand in an open room touches nothing
+     */
+    private static int touchWall(Grid grid, int cell, int turn) {
+        for (int direction = 0; direction < Moves.DIRECTIONS; direction++) {
+            if (Moves.step(grid, cell, (direction + turn) % Moves.DIRECTIONS) < 0)
+                return direction;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  This enum lists the forms in which a batch can save its mazes.
+ */
+package maze.batch;
+
+import maze.io.BinaryFormat;
+import maze.model.Maze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public enum BatchFormat {
+
+    //The text form of Maze.export
+    TEXT(".txt"),
+
+    //The binary form with all the walls
+    BINARY(".mzb"),
+
+    //Only the seed of the maze, which is generated again when it is loaded
+    SEED(".mzs");
+
+    //Extension of the saved files
+    private final String extension;
+
+    BatchFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    //Saves the maze to the file in this form
+    public void write(Maze maze, Path path) throws IOException {
+        switch (this) {
+            case TEXT:
+                Files.writeString(path, maze.export(), UTF_8);
+                break;
+            case BINARY:
+                BinaryFormat.write(maze, path);
+                break;
+            case SEED:
+                BinaryFormat.writeSeed(maze, path);
+                break;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *  This class generates a batch of mazes and saves them to files. The
+ *  mazes are generated and solved on a fixed pool of the given size and
+ *  handed to the calling thread, which writes them, through a bounded
+ *  queue. When the writer falls behind the queue fills up and the
+ *  generating threads wait, so at most one maze per thread, the full queue
+ *  and the maze being written are kept in memory. A fork/join pool would
+ *  not do, as it starts more threads for the ones blocked on the queue.
+ *
+ *  Every maze depends only on its index, so the files and the manifest are
+ *  the same however the work is scheduled.
+ */
+package maze.batch;
+
+import maze.model.Maze;
+import maze.model.Solution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class BatchGenerator {
+
+    //Name of the file which lists the saved mazes
+    public static final String MANIFEST = "batch.csv";
+
+    //What to generate and where to save it
+    private final BatchSpec spec;
+
+    //Indicates if the writer of the current run stopped taking items
+    private volatile boolean isFinished;
+
+    //Number of mazes of the current run which were generated and not yet written
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    //Largest number of mazes of the current run kept in memory at once
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public BatchGenerator(BatchSpec spec) {
+        this.spec = spec;
+    }
+
+    /*
+     * Generates and saves the whole batch and writes the manifest, one
+     * line per maze in the order of indices. Mazes which fail are listed
+     * in the report and the others are saved anyway
+     */
+    public BatchReport run() throws IOException, InterruptedException {
+        Files.createDirectories(spec.getDirectory());
+        isFinished = false;
+        inFlight.set(0);
+        peakInFlight.set(0);
+        var start = System.nanoTime();
+        var queue = new ArrayBlockingQueue<Item>(spec.getQueueCapacity());
+        var lines = new String[spec.getCount()];
+        var errors = new String[spec.getCount()];
+        var pool = Executors.newFixedThreadPool(spec.getThreads());
+        try {
+            for (int i = 0; i < spec.getCount(); i++) {
+                var index = i;
+                pool.execute(() -> produce(index, queue));
+            }
+            for (int n = 0; n < spec.getCount(); n++) {
+                var item = queue.take();
+                try {
+                    if (item.error != null) {
+                        errors[item.index] = item.index + ": " + item.error;
+                    } else {
+                        lines[item.index] = write(item);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    errors[item.index] = item.index + ": " + e;
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        } finally {
+            isFinished = true;
+            pool.shutdownNow();
+        }
+        var saved = 0;
+        var failures = new ArrayList<String>();
+        var manifest = new StringBuilder("index,seed,height,width,path,file\n");
+        for (int i = 0; i < spec.getCount(); i++) {
+            if (errors[i] != null) {
+                failures.add(errors[i]);
+            } else {
+                manifest.append(lines[i]).append('\n');
+                saved++;
+            }
+        }
+        Files.writeString(spec.getDirectory().resolve(MANIFEST), manifest, UTF_8);
+        return new BatchReport(saved, failures, peakInFlight.get(), System.nanoTime() - start);
+    }
+
+    /*
+     * Generates and solves the maze with the index and waits for room
+     * in the queue. A maze which is only saved as its seed is not
+     * generated at all. Every index puts exactly one item into the queue,
+     * an error of any kind included, as the writer waits for all of them.
+     * Only when the writer has stopped waiting the item may be dropped
+     */
+    private void produce(int index, BlockingQueue<Item> queue) {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        Item item;
+        try {
+            var height = spec.heightOf(index);
+            var width = spec.widthOf(index);
+            var seed = spec.seedOf(index);
+            var maze = spec.getFormat() == BatchFormat.SEED && !spec.isSolve()
+                ? Maze.lazy(height, width, seed, Maze.GENERATOR_VERSION)
+                : new Maze(height, width, seed);
+            var solution = spec.isSolve() ? maze.solve() : null;
+            item = new Item(index, maze, solution, null);
+        } catch (Throwable e) {
+            item = new Item(index, null, null, e);
+        }
+        var interrupted = false;
+        while (!isFinished) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    //Saves the maze and return its line of the manifest
+    private String write(Item item) throws IOException {
+        var maze = item.maze;
+        var name = String.format("maze-%06d%s", item.index, spec.getFormat().getExtension());
+        var path = spec.getDirectory().resolve(name);
+        spec.getFormat().write(maze, path);
+        var length = item.solution != null ? Integer.toString(item.solution.getLength()) : "";
+        return item.index + "," + maze.getSeed() + "," + maze.getHeight() + ","
+            + maze.getWidth() + "," + length + "," + name;
+    }
+
+    //A generated maze or the error which stopped it, passed to the writer
+    private static final class Item {
+
+        private final int index;
+
+        private final Maze maze;
+
+        private final Solution solution;
+
+        private final Throwable error;
+
+        Item(int index, Maze maze, Solution solution, Throwable error) {
+            this.index = index;
+            this.maze = maze;
+            this.solution = solution;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *  This class sums up a finished batch: how many mazes were saved, which
+ *  of them failed and how fast the batch went.
+ */
+package maze.batch;
+
+import java.util.List;
+
+public final class BatchReport {
+
+    //Number of mazes which were saved
+    private final int saved;
+
+    //Descriptions of the mazes which failed, in the order of their indices
+    private final List<String> failures;
+
+    //Largest number of mazes kept in memory at once, generated but not yet written
+    private final int peakInFlight;
+
+    //Time the whole batch took in nanoseconds
+    private final long elapsedNanos;
+
+    BatchReport(int saved, List<String> failures, int peakInFlight, long elapsedNanos) {
+        this.saved = saved;
+        this.failures = List.copyOf(failures);
+        this.peakInFlight = peakInFlight;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getSaved() {
+        return saved;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    //Return the number of saved mazes per second of the whole batch
+    public double getMazesPerSecond() {
+        return elapsedNanos == 0 ? 0 : saved * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Saved %d mazes in %.3f s, %.1f mazes per second, %d failed",
+                             saved, elapsedNanos / 1e9, getMazesPerSecond(), failures.size());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *  This class describes a batch of mazes: how many, the range of their
+ *  sizes, the first seed and the directory they are saved to. The maze
+ *  with index i is generated from the seed firstSeed + i and its size is
+ *  drawn from that seed too, so a batch is the same however it is run.
+ *  A spec never changes, the with methods return changed copies.
+ */
+package maze.batch;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+public final class BatchSpec {
+
+    //Number of mazes
+    private final int count;
+
+    //Smallest height and width of a maze
+    private final int minSize;
+
+    //Largest height and width of a maze
+    private final int maxSize;
+
+    //Seed of the first maze, the others take the following seeds
+    private final long firstSeed;
+
+    //Directory the mazes are saved to
+    private final Path directory;
+
+    //Form the mazes are saved in
+    private final BatchFormat format;
+
+    //Indicates if the escape of every maze is found
+    private final boolean solve;
+
+    //Number of threads generating the mazes
+    private final int threads;
+
+    //Number of mazes which may wait for the writer before generation stops
+    private final int queueCapacity;
+
+    /*
+     * Creates a spec for mazes whose height and width are drawn between
+     * the sizes, saved as text, not solved and generated on every core
+     */
+    public BatchSpec(int count, int minSize, int maxSize, long firstSeed, Path directory) {
+        this(count, minSize, maxSize, firstSeed, directory, BatchFormat.TEXT, false,
+             Runtime.getRuntime().availableProcessors(),
+             2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    private BatchSpec(int count, int minSize, int maxSize, long firstSeed, Path directory,
+                      BatchFormat format, boolean solve, int threads, int queueCapacity) {
+        if (count < 0)
+            throw new IllegalArgumentException("The number of mazes must not be negative");
+        if (minSize < 3 || maxSize < minSize)
+            throw new IllegalArgumentException("The sizes must be at least 3 and in order");
+        if (threads < 1 || queueCapacity < 1)
+            throw new IllegalArgumentException("The threads and the queue capacity must be positive");
+        this.count = count;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.firstSeed = firstSeed;
+        this.directory = Objects.requireNonNull(directory);
+        this.format = Objects.requireNonNull(format);
+        this.solve = solve;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public BatchSpec withFormat(BatchFormat format) {
+        return new BatchSpec(count, minSize, maxSize, firstSeed, directory,
+                             format, solve, threads, queueCapacity);
+    }
+
+    public BatchSpec withSolve(boolean solve) {
+        return new BatchSpec(count, minSize, maxSize, firstSeed, directory,
+                             format, solve, threads, queueCapacity);
+    }
+
+    public BatchSpec withThreads(int threads) {
+        return new BatchSpec(count, minSize, maxSize, firstSeed, directory,
+                             format, solve, threads, queueCapacity);
+    }
+
+    public BatchSpec withQueueCapacity(int queueCapacity) {
+        return new BatchSpec(count, minSize, maxSize, firstSeed, directory,
+                             format, solve, threads, queueCapacity);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getFirstSeed() {
+        return firstSeed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public BatchFormat getFormat() {
+        return format;
+    }
+
+    public boolean isSolve() {
+        return solve;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    //Return the seed of the maze with the index
+    public long seedOf(int index) {
+        return firstSeed + index;
+    }
+
+    //Return the height of the maze with the index
+    public int heightOf(int index) {
+        return sizeOf(seedOf(index), 0);
+    }
+
+    //Return the width of the maze with the index
+    public int widthOf(int index) {
+        return sizeOf(seedOf(index), 1);
+    }
+
+    /*
+     * Draws a size from the seed with the SplitMix64 mixer, so the sizes
+     * depend only on the seed and not on any random generator of the JDK
+     */
+    private int sizeOf(long seed, int side) {
+        var z = seed + (side + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return minSize + (int) Long.remainderUnsigned(z, maxSize - minSize + 1L);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ *  This class reads and writes mazes in a compact binary form.
+ *
+ *  The file starts with a 16 byte header: the magic bytes "MAZB", the
+ *  version of the format, the flags, two reserved bytes, and then the
+ *  height and the width as little-endian ints. The rows follow the header.
+ *
+ *  Without flags every row is stored as the little-endian words of
+ *  PackedGrid, so a file can be mapped into memory and used as an
+ *  OffHeapGrid right away. With the RUN_LENGTH flag every row is a list of varint
+ *  run lengths which alternate between passages and walls, starting
+ *  with passages.
+ *
+ *  With the SEED flag there are no rows at all. The header is followed by
+ *  the seed as a little-endian long and the version of the generator as a
+ *  little-endian int, and the maze is generated again when it is used.
+ */
+package maze.io;
+
+import maze.metrics.ExportEvent;
+import maze.metrics.LoadEvent;
+import maze.model.Grid;
+import maze.model.Maze;
+import maze.model.OffHeapGrid;
+import maze.model.PackedGrid;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.READ;
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.EXPORT;
+import static maze.metrics.Metrics.EXPORT_BYTES;
+import static maze.metrics.Metrics.LOAD;
+import static maze.metrics.Metrics.LOAD_BYTES;
+
+public final class BinaryFormat {
+
+    //First bytes of every binary maze file
+    private static final int MAGIC = 'M' | 'A' << 8 | 'Z' << 16 | 'B' << 24;
+
+    //Version of the format written by this class
+    private static final byte VERSION = 1;
+
+    //Flag of files whose rows are run-length encoded
+    private static final byte RUN_LENGTH = 1;
+
+    //Flag of files which store only the seed and the version of the generator
+    private static final byte SEED = 2;
+
+    //Size of the seed and the version which follow the header
+    private static final int SEED_SIZE = Long.BYTES + Integer.BYTES;
+
+    //Size of the header in bytes
+    private static final int HEADER_SIZE = 16;
+
+    //Size of the buffer used for writing
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private BinaryFormat() {
+    }
+
+    //Checks if the file starts with the magic bytes of the binary format
+    public static boolean isBinary(Path path) throws IOException {
+        try (var channel = FileChannel.open(path)) {
+            var header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0);
+            return !header.hasRemaining() && header.getInt(0) == MAGIC;
+        }
+    }
+
+    /*
+     * Writes the maze to the file. The rows are run-length encoded only if
+     * that makes them at least two times smaller, because a file without
+     * compression can be mapped into memory and read lazily.
+     */
+    public static void write(Maze maze, Path path) throws IOException {
+        var grid = maze.getGrid();
+        var compress = 2 * runLengthSize(grid) <= rawSize(grid);
+        MazeFiles.replace(path, channel -> {
+            write(maze, channel, compress);
+            return null;
+        });
+    }
+
+    //Writes the maze to the channel with or without run-length encoding
+    public static void write(Maze maze, WritableByteChannel channel,
+                             boolean compress) throws IOException {
+        var event = new ExportEvent("binary");
+        event.begin();
+        var start = System.nanoTime();
+        var grid = maze.getGrid();
+        var written = (long) HEADER_SIZE;
+        var buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+              .put(VERSION)
+              .put(compress ? RUN_LENGTH : 0)
+              .putShort((short) 0)
+              .putInt(grid.getHeight())
+              .putInt(grid.getWidth());
+        for (int i = 0; i < grid.getHeight(); i++) {
+            if (compress) {
+                written += writeRuns(grid, i, buffer, channel);
+            } else {
+                for (int k = 0; k < grid.getStride(); k++) {
+                    ensure(buffer, channel, Long.BYTES);
+                    buffer.putLong(grid.getWallWord(i, k));
+                }
+                written += (long) grid.getStride() * Long.BYTES;
+            }
+        }
+        flush(buffer, channel);
+        event.setResult(maze.getHeight(), maze.getWidth(), written);
+        event.commit();
+        metrics().time(EXPORT, System.nanoTime() - start);
+        metrics().count(EXPORT_BYTES, written);
+    }
+
+    /*
+     * Writes only the size, the seed and the generator version of the
+     * maze, which must be generated from a seed. The file takes 28 bytes
+     * whatever the size of the maze
+     */
+    public static void writeSeed(Maze maze, Path path) throws IOException {
+        if (!maze.isSeeded())
+            throw new IllegalArgumentException("Only a maze generated from a seed can be saved as its seed");
+        var buffer = ByteBuffer.allocate(HEADER_SIZE + SEED_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+              .put(VERSION)
+              .put(SEED)
+              .putShort((short) 0)
+              .putInt(maze.getHeight())
+              .putInt(maze.getWidth())
+              .putLong(maze.getSeed())
+              .putInt(maze.getVersion());
+        var event = new ExportEvent("seed");
+        event.begin();
+        var start = System.nanoTime();
+        MazeFiles.replace(path, channel -> {
+            flush(buffer, channel);
+            return null;
+        });
+        event.setResult(maze.getHeight(), maze.getWidth(), HEADER_SIZE + SEED_SIZE);
+        event.commit();
+        metrics().time(EXPORT, System.nanoTime() - start);
+        metrics().count(EXPORT_BYTES, HEADER_SIZE + SEED_SIZE);
+    }
+
+    /*
+     * Loads a maze from the file. A file with only a seed gives a maze
+     * which is generated on its first use. A file without compression is mapped
+     * into memory as a read-only grid, so it is read only as the cells
+     * are used. A compressed file is decoded into the heap.
+     */
+    public static Maze load(Path path) throws IOException {
+        var event = new LoadEvent("binary");
+        event.begin();
+        var start = System.nanoTime();
+        try (var channel = FileChannel.open(path, READ)) {
+            var maze = read(channel);
+            if (maze.isSeeded())
+                event.setFormat("seed");
+            event.setResult(maze.getHeight(), maze.getWidth(), channel.size());
+            event.commit();
+            metrics().time(LOAD, System.nanoTime() - start);
+            metrics().count(LOAD_BYTES, channel.size());
+            return maze;
+        }
+    }
+
+    //Reads the header of the file and loads the maze in the form it tells
+    private static Maze read(FileChannel channel) throws IOException {
+        var header = channel.map(READ_ONLY, 0, Math.min(HEADER_SIZE, channel.size()))
+                            .order(ByteOrder.LITTLE_ENDIAN);
+        if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Cannot load the maze. It is not a binary maze file");
+        if (header.get(4) != VERSION)
+            throw new IllegalArgumentException("Cannot load the maze. Unknown version " + header.get(4));
+        var flags = header.get(5);
+        var height = header.getInt(8);
+        var width = header.getInt(12);
+        if (height < 1 || width < 1)
+            throw new IllegalArgumentException("Cannot load the maze. Invalid size " + height + "x" + width);
+        if ((flags & SEED) != 0) {
+            if (channel.size() < HEADER_SIZE + SEED_SIZE)
+                throw new IllegalArgumentException("Cannot load the maze. The file is truncated");
+            var seed = channel.map(READ_ONLY, HEADER_SIZE, SEED_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            return Maze.lazy(height, width, seed.getLong(0), seed.getInt(Long.BYTES));
+        }
+        if ((flags & RUN_LENGTH) == 0)
+            return Maze.load(OffHeapGrid.map(channel, READ_ONLY, HEADER_SIZE, height, width));
+        var size = channel.size() - HEADER_SIZE;
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Cannot load the maze. The file is too large to decode");
+        try {
+            return Maze.load(readRuns(channel.map(READ_ONLY, HEADER_SIZE, size), height, width));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Cannot load the maze. The file is truncated");
+        }
+    }
+
+    /*
+     * Creates a binary maze file without compression and returns its rows
+     * mapped into memory. A maze generated into the grid is stored in the
+     * file as it is built and can be loaded later with load
+     */
+    public static OffHeapGrid create(Path path, int height, int width) throws IOException {
+        return MazeFiles.replace(path, channel -> {
+            var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                  .put(VERSION)
+                  .put((byte) 0)
+                  .putShort((short) 0)
+                  .putInt(height)
+                  .putInt(width);
+            flush(header, channel);
+            return OffHeapGrid.map(channel, READ_WRITE, HEADER_SIZE, height, width);
+        });
+    }
+
+    /*
+     * Decodes the run-length encoded rows into a grid on the heap. Only
+     * the first run of a row may be empty, when the row starts with a wall
+     */
+    private static Grid readRuns(ByteBuffer in, int height, int width) {
+        var grid = new PackedGrid(height, width);
+        for (int i = 0; i < height; i++) {
+            var column = 0;
+            var wall = false;
+            while (column < width) {
+                var run = readVarint(in);
+                if (run < 0 || run == 0 && column > 0 || run > width - column)
+                    throw new IllegalArgumentException("Cannot load the maze. Invalid run in row " + i);
+                if (wall) {
+                    for (int j = column; j < column + run; j++)
+                        grid.setWall(i, j, true);
+                }
+                column += run;
+                wall = !wall;
+            }
+        }
+        return grid;
+    }
+
+    //Writes the runs of one row and return the number of bytes they take
+    private static int writeRuns(Grid grid, int row, ByteBuffer buffer,
+                                 WritableByteChannel channel) throws IOException {
+        var width = grid.getWidth();
+        var column = 0;
+        var wall = false;
+        var written = 0;
+        while (column < width) {
+            var end = runEnd(grid, row, column, wall);
+            ensure(buffer, channel, 5);
+            writeVarint(buffer, end - column);
+            written += varintSize(end - column);
+            column = end;
+            wall = !wall;
+        }
+        return written;
+    }
+
+    //Return the first column after the run of walls or passages starting at the column
+    private static int runEnd(Grid grid, int row, int column, boolean wall) {
+        var width = grid.getWidth();
+        while (column < width) {
+            var word = grid.getWallWord(row, column / Grid.WORD_BITS);
+            if (!wall)
+                word = ~word;
+            word >>>= column;
+            var skip = Long.numberOfTrailingZeros(~word);
+            var end = column + skip;
+            if (skip < Grid.WORD_BITS - column % Grid.WORD_BITS)
+                return Math.min(end, width);
+            column = end;
+        }
+        return width;
+    }
+
+    //Return the number of bytes of the rows without compression
+    private static long rawSize(Grid grid) {
+        return (long) grid.getHeight() * grid.getStride() * Long.BYTES;
+    }
+
+    //Return the number of bytes of the rows with run-length encoding
+    private static long runLengthSize(Grid grid) {
+        var size = 0L;
+        for (int i = 0; i < grid.getHeight(); i++) {
+            var column = 0;
+            var wall = false;
+            while (column < grid.getWidth()) {
+                var end = runEnd(grid, i, column, wall);
+                size += varintSize(end - column);
+                column = end;
+                wall = !wall;
+            }
+        }
+        return size;
+    }
+
+    //Writes a non-negative int in 7-bit groups, lowest group first
+    private static void writeVarint(ByteBuffer buffer, int value) {
+        while (value >= 0x80) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    //Reads an int written by writeVarint
+    private static int readVarint(ByteBuffer buffer) {
+        var value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            var b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Cannot load the maze. Invalid run length");
+    }
+
+    //Return the number of bytes written by writeVarint for the value
+    private static int varintSize(int value) {
+        return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    //Makes room for the given number of bytes, writing the buffer out if needed
+    private static void ensure(ByteBuffer buffer, WritableByteChannel channel,
+                               int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            flush(buffer, channel);
+    }
+
+    //Writes everything in the buffer to the channel and clears it
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  This class draws rows of a maze with the same block characters
+ *  as Maze.toString.
+ */
+package maze.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class BlockRowSink implements RowSink {
+
+    //Destination of the picture
+    private final Writer out;
+
+    //Width of the maze in cells
+    private int width;
+
+    //Characters of one row, reused for every row
+    private char[] line;
+
+    public BlockRowSink(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void start(int height, int width) {
+        this.width = width;
+        this.line = new char[2 * width + 1];
+        line[2 * width] = '\n';
+    }
+
+    @Override
+    public void accept(long[] walls) throws IOException {
+        for (int j = 0; j < width; j++) {
+            var c = (walls[j >>> 6] >>> j & 1) != 0 ? '█' : ' ';
+            line[2 * j] = c;
+            line[2 * j + 1] = c;
+        }
+        out.write(line);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  This class saves the distance field of a maze next to the maze file,
+ *  in a file with the same name and the .dist extension, so it does not
+ *  have to be computed again after loading.
+ *
+ *  The file starts with a 16 byte header: the magic bytes "MAZD", the
+ *  version of the format, three reserved bytes, and then the height and
+ *  the width as little-endian ints. The content hash of the maze follows
+ *  as a little-endian long, then the number of targets and the targets,
+ *  and then the distance of every cell, all as little-endian ints. A
+ *  field is only used for the maze with the same content hash.
+ */
+package maze.io;
+
+import maze.algo.solving.DistanceField;
+import maze.model.Maze;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+
+public final class DistanceFieldFormat {
+
+    //Extension added to the name of the maze file
+    public static final String EXTENSION = ".dist";
+
+    //First bytes of every distance file
+    private static final int MAGIC = 'M' | 'A' << 8 | 'Z' << 16 | 'D' << 24;
+
+    //Version of the format written by this class
+    private static final byte VERSION = 1;
+
+    //Size of the header in bytes
+    private static final int HEADER_SIZE = 16;
+
+    //Size of the buffer used for writing
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private DistanceFieldFormat() {
+    }
+
+    //Return the file of the distance field which belongs to the maze file
+    public static Path fileFor(Path mazeFile) {
+        return mazeFile.resolveSibling(mazeFile.getFileName() + EXTENSION);
+    }
+
+    //Writes the distance field of the maze next to the maze file
+    public static void write(Maze maze, Path mazeFile) throws IOException {
+        var field = maze.getDistanceField();
+        var targets = field.getTargets();
+        var distances = field.getDistances();
+        var buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0)
+              .putInt(field.getHeight()).putInt(field.getWidth())
+              .putLong(maze.getContentHash()).putInt(targets.length);
+        MazeFiles.replace(fileFor(mazeFile), channel -> {
+            for (var target : targets)
+                putInt(buffer, channel, target);
+            for (var distance : distances)
+                putInt(buffer, channel, distance);
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            return null;
+        });
+    }
+
+    /*
+     * Reads the distance field saved next to the maze file and gives it
+     * to the maze. The file is only a cache, so return false instead of
+     * failing if there is no such file, if it cannot be read or is
+     * damaged, or if it was saved for another maze, as when the maze file
+     * was changed since. The maze checks the distances before using them
+     */
+    public static boolean read(Maze maze, Path mazeFile) {
+        var path = fileFor(mazeFile);
+        if (!Files.isRegularFile(path))
+            return false;
+        try (var channel = FileChannel.open(path, READ)) {
+            var data = channel.map(READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (data.remaining() < HEADER_SIZE + Long.BYTES + Integer.BYTES
+                || data.getInt() != MAGIC || data.get() != VERSION)
+                return false;
+            data.position(8);
+            var height = data.getInt();
+            var width = data.getInt();
+            if (height != maze.getHeight() || width != maze.getWidth()
+                || data.getLong() != maze.getContentHash())
+                return false;
+            var count = data.getInt();
+            if (count < 0 || count > data.remaining() / Integer.BYTES)
+                return false;
+            var targets = new int[count];
+            data.asIntBuffer().get(targets);
+            data.position(data.position() + Integer.BYTES * targets.length);
+            var distances = new int[Math.multiplyExact(height, width)];
+            data.asIntBuffer().get(distances);
+            return maze.useDistanceField(new DistanceField(height, width, targets, distances));
+        } catch (IOException | BufferUnderflowException e) {
+            return false;
+        }
+    }
+
+    //Puts the int into the buffer, writing the buffer out first when it is full
+    private static void putInt(ByteBuffer buffer, FileChannel channel, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+        buffer.putInt(value);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  This class stores the rows of a maze in a grid, for example an
+ *  OffHeapGrid mapped to a file, so a streamed maze can be solved later.
+ */
+package maze.io;
+
+import maze.model.Grid;
+
+public class GridRowSink implements RowSink {
+
+    //Destination of the rows
+    private final Grid grid;
+
+    //Row which is written next
+    private int row;
+
+    public GridRowSink(Grid grid) {
+        this.grid = grid;
+    }
+
+    @Override
+    public void start(int height, int width) {
+        if (height != grid.getHeight() || width != grid.getWidth()) {
+            throw new IllegalArgumentException(
+                "The maze does not fit the grid");
+        }
+        row = 0;
+    }
+
+    @Override
+    public void accept(long[] walls) {
+        for (int k = 0; k < walls.length; k++)
+            grid.setWallWord(row, k, walls[k]);
+        row++;
+    }
+
+    @Override
+    public void finish() {
+    }
+}
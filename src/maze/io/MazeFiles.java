@@ -0,0 +1,75 @@
+/*
+ *  This class loads a maze from a file in any of the supported forms.
+ */
+package maze.io;
+
+import maze.model.Maze;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+public final class MazeFiles {
+
+    //Writes the content of a file to its channel and returns what it made
+    interface Content<T> {
+        T write(FileChannel channel) throws IOException;
+    }
+
+    private MazeFiles() {
+    }
+
+    /*
+     * Loads the maze from the file, which is read as the binary form if
+     * it starts with its magic bytes and as the text form otherwise. The
+     * distance field saved next to the file is used if it still fits
+     */
+    public static Maze load(Path path) throws IOException {
+        Maze maze;
+        if (BinaryFormat.isBinary(path)) {
+            maze = BinaryFormat.load(path);
+        } else {
+            try (var channel = FileChannel.open(path)) {
+                maze = TextMazeReader.read(channel);
+            }
+        }
+        DistanceFieldFormat.read(maze, path);
+        return maze;
+    }
+
+    /*
+     * Writes the file through a temporary file in the same directory which
+     * then replaces it. A maze loaded from the old file may still have it
+     * mapped into memory, and truncating the file in place would take the
+     * cells away from under that maze. The moved file gets a new inode,
+     * so the old mapping keeps reading the old content
+     */
+    static <T> T replace(Path path, Content<T> content) throws IOException {
+        var temp = path.resolveSibling(path.getFileName() + "."
+                                       + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        var channel = FileChannel.open(temp, CREATE_NEW, READ, WRITE);
+        try {
+            T result;
+            try (channel) {
+                result = content.write(channel);
+            }
+            try {
+                Files.move(temp, path, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, REPLACE_EXISTING);
+            }
+            return result;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ *  This exception is thrown when a maze file is not valid. It tells the
+ *  row and the column of the grid where the problem was found, or -1 for
+ *  both if it was found in the header.
+ */
+package maze.io;
+
+public class MazeFormatException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    //Row of the grid where the problem is, -1 for the header
+    private final int row;
+
+    //Column of the grid where the problem is, -1 for the header
+    private final int column;
+
+    public MazeFormatException(String message, int row, int column) {
+        super("Cannot load the maze. " + message
+                  + (row < 0 ? " in the header" : " at row " + row + ", column " + column));
+        this.row = row;
+        this.column = column;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ *  This interface receives a maze one row at a time, so a maze can be
+ *  written or drawn while it is generated without keeping it in memory.
+ */
+package maze.io;
+
+import java.io.IOException;
+
+public interface RowSink {
+
+    //Called once before the first row with the size of the maze
+    void start(int height, int width) throws IOException;
+
+    /*
+     * Called for every row from top to bottom. The row is packed like a
+     * row of PackedGrid, bit j of word j / 64 is set when the cell in
+     * column j is a wall. The array is reused for the next row.
+     */
+    void accept(long[] walls) throws IOException;
+
+    //Called once after the last row
+    void finish() throws IOException;
+}
@@ -0,0 +1,183 @@
+/*
+ *  This class reads mazes in the text form of Maze.export. The input is
+ *  read in fixed-size chunks and scanned a character at a time straight
+ *  into a packed grid, so nothing but the grid grows with the maze.
+ *  Every problem is reported with the row and the column it was found at.
+ */
+package maze.io;
+
+import maze.metrics.LoadEvent;
+import maze.model.Maze;
+import maze.model.PackedGrid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.LOAD;
+import static maze.metrics.Metrics.LOAD_BYTES;
+import static maze.model.Grid.WORD_BITS;
+
+public class TextMazeReader {
+
+    //Number of bytes or characters read at once
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    //Longest header which is accepted
+    private static final int MAX_HEADER_LENGTH = 64;
+
+    //Characters of the header line, until the grid is created
+    private StringBuilder header = new StringBuilder();
+
+    //The grid being filled, null while the header is read
+    private PackedGrid grid;
+
+    //Height of the maze
+    private int height;
+
+    //Width of the maze
+    private int width;
+
+    //Row which is being read
+    private int row;
+
+    //Column of the next cell in the row
+    private int column;
+
+    //Indicates if the last character was a cell, so a space must follow
+    private boolean afterCell;
+
+    //Number of bytes or characters read so far
+    private long bytes;
+
+    //Time the reading started at
+    private final long start = System.nanoTime();
+
+    //Flight recorder event of the reading
+    private final LoadEvent event = new LoadEvent("text");
+
+    private TextMazeReader() {
+        event.begin();
+    }
+
+    //Reads a maze from the characters of the reader
+    public static Maze read(Reader in) throws IOException {
+        var reader = new TextMazeReader();
+        var chunk = new char[CHUNK_SIZE];
+        for (int n; (n = in.read(chunk)) >= 0; ) {
+            reader.bytes += n;
+            for (int i = 0; i < n; i++)
+                reader.accept(chunk[i]);
+        }
+        return reader.finish();
+    }
+
+    //Reads a maze from the bytes of the stream, which must be ASCII
+    public static Maze read(InputStream in) throws IOException {
+        var reader = new TextMazeReader();
+        var chunk = new byte[CHUNK_SIZE];
+        for (int n; (n = in.read(chunk)) >= 0; ) {
+            reader.bytes += n;
+            for (int i = 0; i < n; i++)
+                reader.accept((char) (chunk[i] & 0xFF));
+        }
+        return reader.finish();
+    }
+
+    //Reads a maze from the bytes of the channel, which must be ASCII
+    public static Maze read(ReadableByteChannel in) throws IOException {
+        var reader = new TextMazeReader();
+        var chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        while (in.read(chunk) >= 0) {
+            var bytes = chunk.array();
+            reader.bytes += chunk.position();
+            for (int i = 0; i < chunk.position(); i++)
+                reader.accept((char) (bytes[i] & 0xFF));
+            chunk.clear();
+        }
+        return reader.finish();
+    }
+
+    //Processes the next character of the input
+    private void accept(char c) {
+        if (grid == null) {
+            acceptHeader(c);
+        } else if (row == height) {
+            if (!isSpace(c) && c != '\n')
+                throw error("Unexpected content after the last row");
+        } else if (c == '0' || c == '1') {
+            if (afterCell)
+                throw error("Cells must be separated by spaces");
+            if (column == width)
+                throw error("The row has more than " + width + " cells");
+            if (c == '1')
+                grid.setWall(row, column, true);
+            column++;
+            afterCell = true;
+        } else if (c == '\n') {
+            if (column != width)
+                throw error("The row has " + column + " cells instead of " + width);
+            row++;
+            column = 0;
+            afterCell = false;
+        } else if (isSpace(c)) {
+            afterCell = false;
+        } else {
+            throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    //Collects the header line and creates the grid when it ends
+    private void acceptHeader(char c) {
+        if (c != '\n') {
+            if (header.length() == MAX_HEADER_LENGTH)
+                throw new MazeFormatException("The header is too long", -1, -1);
+            header.append(c);
+            return;
+        }
+        var size = header.toString().trim().split("[ \t]+");
+        if (size.length != 2)
+            throw new MazeFormatException("Expected the height and the width", -1, -1);
+        try {
+            height = Integer.parseInt(size[0]);
+            width = Integer.parseInt(size[1]);
+        } catch (NumberFormatException e) {
+            throw new MazeFormatException("Invalid size '" + header.toString().trim() + "'", -1, -1);
+        }
+        if (height < 1 || width < 1)
+            throw new MazeFormatException("The size must be positive", -1, -1);
+        if ((long) height * width > Integer.MAX_VALUE)
+            throw new MazeFormatException("The maze has more cells than can be indexed", -1, -1);
+        if ((long) height * ((width + WORD_BITS - 1) / WORD_BITS) * Long.BYTES > Runtime.getRuntime().maxMemory())
+            throw new MazeFormatException("The maze does not fit into the memory", -1, -1);
+        header = null;
+        grid = new PackedGrid(height, width);
+    }
+
+    //Checks that the input is complete and creates the maze
+    private Maze finish() {
+        if (grid == null)
+            throw new MazeFormatException("The file ends early", -1, -1);
+        if (row == height - 1 && column == width)
+            row++;
+        if (row < height)
+            throw error("Expected " + height + " rows but the file ends");
+        event.setResult(height, width, bytes);
+        event.commit();
+        metrics().time(LOAD, System.nanoTime() - start);
+        metrics().count(LOAD_BYTES, bytes);
+        return Maze.load(grid);
+    }
+
+    //Spaces between the cells, a carriage return is accepted for files written on Windows
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    private MazeFormatException error(String message) {
+        return new MazeFormatException(message, row, column);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  This class writes rows of a maze in the text form of Maze.export,
+ *  so the result can be loaded back with Maze.load.
+ */
+package maze.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class TextRowSink implements RowSink {
+
+    //Destination of the text
+    private final Writer out;
+
+    //Width of the maze in cells
+    private int width;
+
+    //Characters of one row, reused for every row
+    private char[] line;
+
+    public TextRowSink(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void start(int height, int width) throws IOException {
+        this.width = width;
+        this.line = new char[2 * width + 1];
+        for (int j = 0; j < width; j++)
+            line[2 * j + 1] = ' ';
+        line[2 * width] = '\n';
+        out.write(height + " " + width + "\n");
+    }
+
+    @Override
+    public void accept(long[] walls) throws IOException {
+        for (int j = 0; j < width; j++)
+            line[2 * j] = (walls[j >>> 6] >>> j & 1) != 0 ? '1' : '0';
+        out.write(line);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *  This class keeps the totals of all counters and timers in memory. It
+ *  can be updated by many threads at once.
+ */
+package maze.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CountingMetrics implements Metrics {
+
+    //Totals of the counters
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    //Number of timed calls of every stage
+    private final ConcurrentHashMap<String, LongAdder> calls = new ConcurrentHashMap<>();
+
+    //Total time of every stage in nanoseconds
+    private final ConcurrentHashMap<String, LongAdder> nanos = new ConcurrentHashMap<>();
+
+    @Override
+    public void count(String name, long delta) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    @Override
+    public void time(String name, long nanos) {
+        calls.computeIfAbsent(name, key -> new LongAdder()).increment();
+        this.nanos.computeIfAbsent(name, key -> new LongAdder()).add(nanos);
+    }
+
+    //Return the total of the counter
+    public long getCount(String name) {
+        return sum(counters, name);
+    }
+
+    //Return the number of timed calls of the stage
+    public long getCalls(String name) {
+        return sum(calls, name);
+    }
+
+    //Return the total time of the stage in nanoseconds
+    public long getNanos(String name) {
+        return sum(nanos, name);
+    }
+
+    private static long sum(Map<String, LongAdder> values, String name) {
+        var value = values.get(name);
+        return value != null ? value.sum() : 0;
+    }
+
+    //Return every counter and timer sorted by name
+    @Override
+    public String toString() {
+        var all = new TreeMap<String, String>();
+        counters.forEach((name, value) -> all.put(name, Long.toString(value.sum())));
+        calls.forEach((name, value) -> all.put(name, value.sum() + " calls, "
+            + String.format("%.3f", getNanos(name) / 1e6) + " ms"));
+        return all.toString();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  This flight recorder event covers exporting one maze.
+ */
+package maze.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("maze.Export")
+@Label("Maze Export")
+@Category("Maze")
+public class ExportEvent extends Event {
+
+    @Label("Format")
+    private final String format;
+
+    @Label("Height")
+    private int height;
+
+    @Label("Width")
+    private int width;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    public ExportEvent(String format) {
+        this.format = format;
+    }
+
+    //Records the size of the maze and the number of bytes or characters written
+    public void setResult(int height, int width, long bytes) {
+        this.height = height;
+        this.width = width;
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ *  This flight recorder event covers the generation of one maze.
+ */
+package maze.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("maze.Generate")
+@Label("Maze Generation")
+@Category("Maze")
+public class GenerateEvent extends Event {
+
+    @Label("Height")
+    private final int height;
+
+    @Label("Width")
+    private final int width;
+
+    public GenerateEvent(int height, int width) {
+        this.height = height;
+        this.width = width;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ *  This class holds the metrics used by the whole library. They are
+ *  no-op until an application sets its own.
+ */
+package maze.metrics;
+
+import java.util.Objects;
+
+public final class Instrumentation {
+
+    //Metrics of the library
+    private static volatile Metrics metrics = Metrics.NOOP;
+
+    private Instrumentation() {
+    }
+
+    public static Metrics metrics() {
+        return metrics;
+    }
+
+    //Replaces the metrics of the library, Metrics.NOOP turns them off
+    public static void setMetrics(Metrics metrics) {
+        Instrumentation.metrics = Objects.requireNonNull(metrics);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *  This flight recorder event covers loading one maze.
+ */
+package maze.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("maze.Load")
+@Label("Maze Loading")
+@Category("Maze")
+public class LoadEvent extends Event {
+
+    @Label("Format")
+    private String format;
+
+    @Label("Height")
+    private int height;
+
+    @Label("Width")
+    private int width;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    public LoadEvent(String format) {
+        this.format = format;
+    }
+
+    //Changes the format when it is only known from the file itself
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    //Records the size of the maze and the number of bytes or characters read
+    public void setResult(int height, int width, long bytes) {
+        this.height = height;
+        this.width = width;
+        this.bytes = bytes;
+    }
+}
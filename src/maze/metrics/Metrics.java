@@ -0,0 +1,61 @@
+/*
+ *  This interface receives the counters and timers of the hot paths of
+ *  the library. The algorithms count in plain fields while they run and
+ *  report the totals once per call, so an implementation is called a few
+ *  times per generated, solved, loaded or exported maze, never per cell.
+ *  The default does nothing.
+ */
+package maze.metrics;
+
+public interface Metrics {
+
+    //Time of generating a maze
+    String GENERATE = "generate";
+
+    //Edges of the passage tree looked at before the tree was complete
+    String GENERATE_EDGES = "generate.edges";
+
+    //Steps up the trees of the disjoint sets while generating
+    String GENERATE_FIND_STEPS = "generate.findSteps";
+
+    //Time of finding an escape
+    String SOLVE = "solve";
+
+    //Solutions found in the solution cache
+    String SOLVE_CACHE_HITS = "solve.cacheHits";
+
+    //Cells or nodes taken from the open set of a search
+    String SOLVE_EXPANDED = "solve.expanded";
+
+    //Insertions and key decreases in the open set of a search
+    String SOLVE_HEAP_PUSHES = "solve.heapPushes";
+
+    //Time of loading a maze
+    String LOAD = "load";
+
+    //Bytes or characters read while loading
+    String LOAD_BYTES = "load.bytes";
+
+    //Time of exporting a maze
+    String EXPORT = "export";
+
+    //Bytes or characters written while exporting
+    String EXPORT_BYTES = "export.bytes";
+
+    //Metrics which ignore everything
+    Metrics NOOP = new Metrics() {
+        @Override
+        public void count(String name, long delta) {
+        }
+
+        @Override
+        public void time(String name, long nanos) {
+        }
+    };
+
+    //Adds the delta to the counter with the name
+    void count(String name, long delta);
+
+    //Records how long one call of the named stage took
+    void time(String name, long nanos);
+}
@@ -0,0 +1,38 @@
+/*
+ *  This flight recorder event covers finding one escape path.
+ */
+package maze.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("maze.Solve")
+@Label("Maze Solving")
+@Category("Maze")
+public class SolveEvent extends Event {
+
+    @Label("Height")
+    private final int height;
+
+    @Label("Width")
+    private final int width;
+
+    @Label("Path Length")
+    private int pathLength;
+
+    @Label("Cached")
+    private boolean cached;
+
+    public SolveEvent(int height, int width) {
+        this.height = height;
+        this.width = width;
+    }
+
+    //Records the number of cells of the found path and if it came from the cache
+    public void setResult(int pathLength, boolean cached) {
+        this.pathLength = pathLength;
+        this.cached = cached;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ *  This interface describes the walls of a maze grid. Cells are packed
+ *  one bit per cell and every row starts on a new 64-bit word, so bit j
+ *  of word j / 64 of a row is set when the cell in column j is a wall.
+ */
+package maze.model;
+
+public interface Grid {
+
+    //Number of cells stored in one word
+    int WORD_BITS = 64;
+
+    int getHeight();
+
+    int getWidth();
+
+    //Return the number of words used by one row
+    default int getStride() {
+        return (getWidth() + WORD_BITS - 1) / WORD_BITS;
+    }
+
+    boolean isWall(int row, int column);
+
+    void setWall(int row, int column, boolean wall);
+
+    //Return the wall bits of the given word of a row
+    long getWallWord(int row, int word);
+
+    //Replaces the wall bits of the given word of a row
+    void setWallWord(int row, int word, long bits);
+
+    //Fills every word of the row with the same pattern of wall bits
+    default void fillRow(int row, long pattern) {
+        for (int k = 0; k < getStride(); k++)
+            setWallWord(row, k, pattern);
+    }
+}
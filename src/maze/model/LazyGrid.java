@@ -0,0 +1,76 @@
+/*
+ *  This class is a grid which is built on the first access to its walls.
+ *  A maze stored as its seed uses it, so loading is cheap and the walls
+ *  are generated only if they are ever needed. Threads which access the
+ *  grid at once wait for the one which builds it.
+ */
+package maze.model;
+
+import java.util.function.Supplier;
+
+final class LazyGrid implements Grid {
+
+    //Height of the grid in cells
+    private final int height;
+
+    //Width of the grid in cells
+    private final int width;
+
+    //Builds the walls, null once they are built
+    private Supplier<Grid> factory;
+
+    //The built walls, null until the first access
+    private volatile Grid grid;
+
+    LazyGrid(int height, int width, Supplier<Grid> factory) {
+        this.height = height;
+        this.width = width;
+        this.factory = factory;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public boolean isWall(int row, int column) {
+        return get().isWall(row, column);
+    }
+
+    @Override
+    public void setWall(int row, int column, boolean wall) {
+        get().setWall(row, column, wall);
+    }
+
+    @Override
+    public long getWallWord(int row, int word) {
+        return get().getWallWord(row, word);
+    }
+
+    @Override
+    public void setWallWord(int row, int word, long bits) {
+        get().setWallWord(row, word, bits);
+    }
+
+    //Return the walls, building them on the first call
+    private Grid get() {
+        var built = grid;
+        if (built == null) {
+            synchronized (this) {
+                built = grid;
+                if (built == null) {
+                    built = factory.get();
+                    grid = built;
+                    factory = null;
+                }
+            }
+        }
+        return built;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *  This class keeps the most recently used solutions. It is bounded both
+ *  by the number of solutions and by the total number of path cells they
+ *  hold, and drops the least recently used solutions when either bound is
+ *  exceeded. A solution keeps its path and, once it is drawn, a sorted
+ *  copy of it, so a cell takes at most eight bytes. Nothing it keeps
+ *  grows with the size of the maze beyond its path.
+ */
+package maze.model;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+public class LruSolutionCache implements SolutionCache {
+
+    //Largest number of solutions kept
+    private final int maxEntries;
+
+    //Largest number of path cells kept in all solutions together
+    private final long maxCells;
+
+    //Solutions from the least to the most recently used
+    private final LinkedHashMap<Key, Solution> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    //Number of path cells kept now
+    private long cells;
+
+    //Number of lookups which found a solution
+    private long hits;
+
+    //Number of lookups which found nothing
+    private long misses;
+
+    //Number of solutions dropped to stay within the bounds
+    private long evictions;
+
+    public LruSolutionCache(int maxEntries, long maxCells) {
+        if (maxEntries < 0 || maxCells < 0)
+            throw new IllegalArgumentException("The bounds of the cache must not be negative");
+        this.maxEntries = maxEntries;
+        this.maxCells = maxCells;
+    }
+
+    @Override
+    public synchronized Solution get(long contentHash, int start, int end) {
+        var solution = entries.get(new Key(contentHash, start, end));
+        if (solution == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return solution;
+    }
+
+    @Override
+    public synchronized void put(long contentHash, int start, int end, Solution solution) {
+        if (solution.getLength() > maxCells || maxEntries == 0)
+            return;
+        var old = entries.put(new Key(contentHash, start, end), solution);
+        if (old != null)
+            cells -= old.getLength();
+        cells += solution.getLength();
+        var iterator = entries.values().iterator();
+        while (entries.size() > maxEntries || cells > maxCells) {
+            cells -= iterator.next().getLength();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    @Override
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    @Override
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    @Override
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    //Return the number of solutions kept now
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    //Content hash of a maze with the start and the end of a path in it
+    private static final class Key {
+
+        private final long contentHash;
+
+        private final int start;
+
+        private final int end;
+
+        Key(long contentHash, int start, int end) {
+            this.contentHash = contentHash;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            var key = (Key) o;
+            return contentHash == key.contentHash && start == key.start && end == key.end;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contentHash, start, end);
+        }
+    }
+}
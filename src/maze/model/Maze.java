@@ -3,75 +3,234 @@
  *  6/7/2023
  *  This class encapsulates the internal representation of the maze and provides
  *  methods for creating, managing and extracting information about it.
+ *  A maze never changes after it is generated or loaded, and escape paths
+ *  are returned as separate solutions, so threads can share one maze.
  */
 package maze.model;
 
+import maze.algo.generation.MazeGenerator;
 import maze.algo.generation.PassageTree;
-import maze.algo.solving.Fugitive;
+import maze.algo.generation.TiledPassageTree;
+import maze.algo.solving.BidirectionalFugitive;
+import maze.algo.solving.DistanceField;
+import maze.algo.solving.JumpPointSearch;
+import maze.algo.solving.JunctionGraph;
+import maze.algo.solving.PathIndex;
+import maze.algo.solving.SearchResult;
+import maze.algo.solving.Solver;
+import maze.io.TextMazeReader;
+import maze.metrics.ExportEvent;
+import maze.metrics.GenerateEvent;
+import maze.metrics.SolveEvent;
+import maze.render.BlockRenderer;
 
-import java.util.function.Consumer;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
 
-import static java.lang.Integer.parseInt;
+import static maze.metrics.Instrumentation.metrics;
+import static maze.metrics.Metrics.EXPORT;
+import static maze.metrics.Metrics.EXPORT_BYTES;
+import static maze.metrics.Metrics.GENERATE;
+import static maze.metrics.Metrics.SOLVE;
+import static maze.metrics.Metrics.SOLVE_CACHE_HITS;
+import static maze.model.Cell.Type.ESCAPE;
 import static maze.model.Cell.Type.PASSAGE;
 import static maze.model.Cell.Type.WALL;
+import static maze.model.Grid.WORD_BITS;
 
 
 public class Maze {
 
+    /*
+     * Version of the generator used for seeded mazes. A seed and a version
+     * always give the same maze, so a change to the passages generated for
+     * a seed needs a new version while the old ones keep working
+     */
+    public static final int GENERATOR_VERSION = 1;
+
+    //Version of mazes which cannot be generated again from a seed
+    private static final int UNSEEDED = 0;
+
     //Heigh of maze in cells
     private final int height;
 
     //Width of maze in cells
     private final int width;
 
-    //2-dimensional array of cells representing maze
-    private final Cell[][] grid;
+    //Bit-packed walls of the maze
+    private final Grid grid;
+
+    //Seed the maze is generated from, meaningful only if the version is not UNSEEDED
+    private final long seed;
+
+    //Version of the generator the maze is generated with
+    private final int version;
+
+    //The walls handed out to others, which cannot be changed through it
+    private final Grid view;
+
+    /*
+     * Index of the paths between any two cells, null until it is needed.
+     * Threads which see null may all build it, as they build the same one
+     */
+    private volatile PathIndex pathIndex;
+
+    //Junctions and corridors between the entrance and the exit, null until the first solve
+    private volatile JunctionGraph junctions;
 
-    //Prevents recalculation by determining if the solving method was already used
-    private boolean isSolved = false;
+    //Distances of all the cells to the exit, computed on first use
+    private volatile DistanceField distances;
+
+    //Hash of the size and the walls of the maze, valid once isHashed is set
+    private volatile long contentHash;
+
+    //Indicates if the content hash is computed
+    private volatile boolean isHashed;
+
+    //Cache of solutions shared by all mazes
+    private static volatile SolutionCache solutionCache = new LruSolutionCache(256, 1 << 24);
 
     //Generates a new maze given height and width
     public Maze(int height, int width) {
+        this(height, width, new SplittableRandom().nextLong());
+    }
+
+    //Generates the maze which is always the same for the seed
+    public Maze(int height, int width, long seed) {
+        this(new PackedGrid(height, width), seed, GENERATOR_VERSION);
+    }
+
+    /*
+     * Generates the maze for the seed with the given version of the
+     * generator, which gives the same maze on every machine
+     */
+    public static Maze generate(int height, int width, long seed, int version) {
+        return new Maze(new PackedGrid(height, width), seed, version);
+    }
+
+    /*
+     * Creates the maze for the seed and the version of the generator
+     * without generating it. The walls are generated on their first use,
+     * and the maze takes memory only from then on
+     */
+    public static Maze lazy(int height, int width, long seed, int version) {
+        checkSize(height, width);
+        passages(version, seed, height, width);
+        var grid = new LazyGrid(height, width, () -> generate(height, width, seed, version).grid);
+        return new Maze(height, width, grid, seed, version);
+    }
+
+    //Generates a new maze if it's a square
+    public Maze(int size) {
+        this(size, size);
+    }
+
+    /*
+     * Generates a new maze on several cores. The passage cells are split
+     * into tiles of the given size which are generated in parallel, and
+     * the same seed and tile size always give the same maze
+     */
+    public static Maze generateParallel(int height, int width, long seed, int tileSize) {
+        return generateParallel(new PackedGrid(height, width), seed, tileSize);
+    }
+
+    /*
+     * Generates a new maze on several cores into the given grid, which
+     * may live outside of the heap. Its old content is overwritten
+     */
+    public static Maze generateParallel(Grid grid, long seed, int tileSize) {
+        var height = grid.getHeight();
+        var width = grid.getWidth();
+        return new Maze(grid, new TiledPassageTree(height, width, seed, tileSize), seed, UNSEEDED);
+    }
+
+    /*
+     * Generates a new maze whose passages are carved by the given
+     * generator, which must be made for the same height and width.
+     * Such a maze cannot be stored as a seed
+     */
+    public Maze(int height, int width, MazeGenerator generator) {
+        this(new PackedGrid(height, width), generator);
+    }
+
+    //Generates a new maze with the generator into the given grid, overwriting its old content
+    public Maze(Grid grid, MazeGenerator generator) {
+        this(grid, generator, 0, UNSEEDED);
+    }
+
+    /*
+     * Generates a new maze into the given grid, which may live outside
+     * of the heap. Its old content is overwritten
+     */
+    public Maze(Grid grid) {
+        this(grid, new SplittableRandom().nextLong(), GENERATOR_VERSION);
+    }
+
+    //Generates a new maze into the grid for the seed and the version of the generator
+    private Maze(Grid grid, long seed, int version) {
+        this(grid, passages(version, seed, grid.getHeight(), grid.getWidth()), seed, version);
+    }
+
+    /*
+     * Generates a new maze whose passages are carved by the given function.
+     * The seed and the version tell how to generate the maze again
+     */
+    private Maze(Grid grid, MazeGenerator passages, long seed, int version) {
+        checkSize(grid.getHeight(), grid.getWidth());
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        this.grid = grid;
+        this.view = new ReadOnlyGrid(grid);
+        this.seed = seed;
+        this.version = version;
+        var event = new GenerateEvent(height, width);
+        event.begin();
+        var start = System.nanoTime();
+        fillGrid(passages);
+        event.commit();
+        metrics().time(GENERATE, System.nanoTime() - start);
+        getContentHash();
+    }
+
+    //Checks if the maze is large enough to have an entrance and an exit
+    private static void checkSize(int height, int width) {
         if (height < 3 || width < 3) {
             throw new IllegalArgumentException(
                 "Both the height and the width " +
                     "of the maze must be at least 3");
         }
-        this.height = height;
-        this.width = width;
-        grid = new Cell[height][width];
-        fillGrid();
     }
 
-    //Generates a new maze if it's a square
-    public Maze(int size) {
-        this(size, size);
+    //Return the function which carves passages for the seed with the version of the generator
+    private static MazeGenerator passages(int version, long seed, int height, int width) {
+        switch (version) {
+            case 1:
+                return new PassageTree(height, width, seed);
+            default:
+                throw new IllegalArgumentException("Unknown generator version " + version);
+        }
     }
 
     //Fills the maze with connections so there arent like floating walls
-    private void fillGrid() {
+    private void fillGrid(MazeGenerator passages) {
         fillAlternately();
         fillGaps();
         makeEntranceAndExit();
-        generatePassages();
+        generatePassages(passages);
     }
 
-    //Creates a new cell with given coordinates
-    private void putCell(int row, int column, Cell.Type type) {
-        grid[row][column] = new Cell(row, column, type);
-    }
+    //Walls every even column of a row, a bit per column starting from bit 0
+    private static final long EVEN_COLUMNS = 0x5555555555555555L;
 
     //Fills every second cell with a passage, and the other with a wall
     private void fillAlternately() {
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                if ((i & 1) == 0 || (j & 1) == 0) {
-                    putCell(i, j, WALL);
-                } else {
-                    putCell(i, j, PASSAGE);
-                }
-            }
-        }
+        for (int i = 0; i < height; i++)
+            grid.fillRow(i, (i & 1) == 0 ? -1L : EVEN_COLUMNS);
     }
 
     /*
@@ -86,13 +245,12 @@ public class Maze {
     //Fills the last column in the grid with a wall
     private void wallLastColumn() {
         for (int i = 0; i < height; i++)
-            putCell(i, width - 1, WALL);
+            grid.setWall(i, width - 1, true);
     }
 
     //Fills the last row in the grid with a wall
     private void wallLastRow() {
-        for (int i = 0; i < width; i++)
-            putCell(height - 1, i, WALL);
+        grid.fillRow(height - 1, -1L);
     }
 
     /*
@@ -108,10 +266,10 @@ public class Maze {
      * corners
      */
     private void makeEntranceAndExit() {
-        putCell(0, 1, PASSAGE);
-        putCell(height - 1, getExitColumn(), PASSAGE);
+        grid.setWall(0, 1, false);
+        grid.setWall(height - 1, getExitColumn(), false);
         if (height % 2 == 0)
-            putCell(height - 2, getExitColumn(), PASSAGE);
+            grid.setWall(height - 2, getExitColumn(), false);
     }
 
     /*
@@ -119,64 +277,307 @@ public class Maze {
      * that every cell is connected to the other in one way and
      * has no cycles
      */
-    private void generatePassages() {
-        new PassageTree(height, width)
-            .generate()
-            .forEach(putCell());
+    private void generatePassages(MazeGenerator passages) {
+        passages.generate(grid);
     }
 
-    //Puts the cell in a corresponding place in the grid
-    private Consumer<Cell> putCell() {
-        return cell -> grid[cell.getRow()][cell.getColumn()] = cell;
+    //Finds a path in the maze from its entrance to its exit and draws it
+    public String findEscape() {
+        return findEscape(false);
     }
 
-    //Finds a path in the maze from its entrance to its exit
-    public String findEscape() {
-        if (!isSolved) {
-            new Fugitive(grid, getEntrance(), getExit())
-                .findEscape()
-                .forEach(putCell());
-            isSolved = true;
+    /*
+     * Finds a path in the maze from its entrance to its exit and draws
+     * it. A bidirectional search goes from both ends at once on two threads
+     */
+    public String findEscape(boolean bidirectional) {
+        return toString(solve(bidirectional));
+    }
+
+    //Finds a path in the maze from its entrance to its exit with the solver and draws it
+    public String findEscape(Solver solver) {
+        return toString(solve(solver));
+    }
+
+    //Return a shortest path from the entrance to the exit
+    public Solution solve() {
+        return solve(false);
+    }
+
+    /*
+     * Return a path from the entrance to the exit, which is better drawn
+     * with a BlockRenderer for large mazes. Any number of threads may
+     * solve the same maze at once. Shortest paths come from the shared
+     * solution cache when it has them, while bidirectional searches on
+     * two threads may find longer paths and are never cached
+     */
+    public Solution solve(boolean bidirectional) {
+        var event = new SolveEvent(height, width);
+        event.begin();
+        var start = System.nanoTime();
+        var entrance = toIndex(getEntrance());
+        var exit = toIndex(getExit());
+        Solution solution;
+        if (bidirectional) {
+            var path = new BidirectionalFugitive(grid, entrance, exit, true).findEscape();
+            solution = new Solution(height, width, path);
+            event.setResult(solution.getLength(), false);
+        } else {
+            solution = solutionCache.get(getContentHash(), entrance, exit);
+            if (solution == null) {
+                solution = new Solution(height, width, getJunctionGraph().findPath(entrance, exit));
+                solutionCache.put(getContentHash(), entrance, exit, solution);
+                event.setResult(solution.getLength(), false);
+            } else {
+                event.setResult(solution.getLength(), true);
+                metrics().count(SOLVE_CACHE_HITS, 1);
+            }
         }
-        return toString(true);
+        event.commit();
+        metrics().time(SOLVE, System.nanoTime() - start);
+        return solution;
+    }
+
+    //Return the path from the entrance to the exit found by the solver
+    public Solution solve(Solver solver) {
+        return new Solution(height, width, search(solver).getPath());
+    }
+
+    /*
+     * Searches from the entrance to the exit with the solver and return
+     * the path with the statistics of the search. The solution cache is
+     * not used, so every solver does its whole work and can be compared
+     */
+    public SearchResult search(Solver solver) {
+        var event = new SolveEvent(height, width);
+        event.begin();
+        var result = solver.search(grid, toIndex(getEntrance()), toIndex(getExit()));
+        event.setResult(result.getPath().length, false);
+        event.commit();
+        metrics().time(SOLVE, result.getNanos());
+        return result;
+    }
+
+    /*
+     * Return a shortest path between any two cells given by their
+     * indices, row * width + column, using the shared solution cache.
+     * Jump Point Search is used, as loaded grids may have open rooms
+     */
+    public Solution solve(int start, int end) {
+        var size = (long) height * width;
+        if (start < 0 || start >= size || end < 0 || end >= size)
+            throw new IllegalArgumentException("The cells are outside of the maze");
+        var event = new SolveEvent(height, width);
+        event.begin();
+        var time = System.nanoTime();
+        var cache = solutionCache;
+        var solution = cache.get(getContentHash(), start, end);
+        var cached = solution != null;
+        if (cached) {
+            metrics().count(SOLVE_CACHE_HITS, 1);
+        } else {
+            solution = new Solution(height, width, new JumpPointSearch(grid, start, end).findEscape());
+            cache.put(getContentHash(), start, end, solution);
+        }
+        event.setResult(solution.getLength(), cached);
+        event.commit();
+        metrics().time(SOLVE, System.nanoTime() - time);
+        return solution;
+    }
+
+    /*
+     * Return the hash of the size and the walls of the maze, computed
+     * when the maze is generated or on the first call for loaded mazes,
+     * which may be mapped from large files
+     */
+    public long getContentHash() {
+        if (!isHashed) {
+            var hash = height * 0x9E3779B97F4A7C15L ^ width;
+            for (int i = 0; i < height; i++) {
+                for (int k = 0; k < grid.getStride(); k++)
+                    hash = Long.rotateLeft(hash ^ grid.getWallWord(i, k) * 0xC2B2AE3D27D4EB4FL, 31)
+                        * 0x9E3779B97F4A7C15L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            contentHash = hash;
+            isHashed = true;
+        }
+        return contentHash;
+    }
+
+    //Return the cache of solutions shared by all mazes
+    public static SolutionCache getSolutionCache() {
+        return solutionCache;
+    }
+
+    //Replaces the cache of solutions shared by all mazes, SolutionCache.none() turns caching off
+    public static void setSolutionCache(SolutionCache cache) {
+        solutionCache = Objects.requireNonNull(cache);
     }
 
     //Return the entrance cell
     private Cell getEntrance() {
-        return grid[0][1];
+        return getCell(0, 1);
     }
 
     //Return the exit cell
     private Cell getExit() {
-        return grid[height - 1][getExitColumn()];
+        return getCell(height - 1, getExitColumn());
+    }
+
+    //Return the index of the cell used by solvers, which is row * width + column
+    private int toIndex(Cell cell) {
+        return cell.getRow() * width + cell.getColumn();
+    }
+
+    //Checks if the maze can be generated again from its seed and version
+    public boolean isSeeded() {
+        return version != UNSEEDED;
+    }
+
+    //Return the seed the maze is generated from
+    public long getSeed() {
+        if (!isSeeded())
+            throw new IllegalStateException("The maze is not generated from a seed");
+        return seed;
+    }
+
+    //Return the version of the generator the maze is generated with
+    public int getVersion() {
+        if (!isSeeded())
+            throw new IllegalStateException("The maze is not generated from a seed");
+        return version;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
     }
 
     /*
-     * Return the string representation of the grid. The path
-     * from the entrance to the exit can be displayed if it
-     * is already found and showEscape is true
+     * Return the index of the paths between any two cells, building it on
+     * the first call. Cells are addressed by row * width + column, and the
+     * maze must be perfect, as every generated maze is
      */
-    private String toString(boolean showEscape) {
-        var sb = new StringBuilder();
-        for (var row : grid) {
-            for (var cell : row) {
-                if (cell.isWall()) {
-                    sb.append("██");
-                } else if (showEscape && cell.isEscape()) {
-                    sb.append("▓▓");
-                } else {
-                    sb.append("  ");
-                }
-            }
-            sb.append('\n');
+    public PathIndex getPathIndex() {
+        var index = pathIndex;
+        if (index == null) {
+            index = new PathIndex(grid);
+            pathIndex = index;
         }
-        return sb.toString();
+        return index;
+    }
+
+    /*
+     * Return the passages compressed into junctions and corridors, with
+     * the entrance and the exit as nodes, building it on the first call
+     */
+    public JunctionGraph getJunctionGraph() {
+        var graph = junctions;
+        if (graph == null) {
+            graph = new JunctionGraph(grid, toIndex(getEntrance()), toIndex(getExit()));
+            junctions = graph;
+        }
+        return graph;
+    }
+
+    /*
+     * Return the distances of all the cells to the exit, measuring them
+     * on the first call. Routes from any cell to the exit are then found
+     * without searching
+     */
+    public DistanceField getDistanceField() {
+        var field = distances;
+        if (field == null) {
+            field = new DistanceField(grid, toIndex(getExit()));
+            distances = field;
+        }
+        return field;
+    }
+
+    //Checks if the distances to the exit are measured or loaded already
+    public boolean hasDistanceField() {
+        return distances != null;
+    }
+
+    /*
+     * Uses the distances to the exit measured before, such as the ones
+     * saved next to the maze file. Return false if the field is not made
+     * for this maze with the exit as its only target
+     */
+    public boolean useDistanceField(DistanceField field) {
+        if (!Arrays.equals(field.getTargets(), new int[]{toIndex(getExit())}) || !field.fits(grid))
+            return false;
+        distances = field;
+        return true;
+    }
+
+    /*
+     * Return the distances of all the cells to the nearest of the given
+     * cells, such as several exits. The field is not kept by the maze
+     */
+    public DistanceField measureDistances(int... targets) {
+        return new DistanceField(grid, targets);
+    }
+
+    //Return a shortest path from the cell to the exit by walking down the distance field
+    public Solution route(int start) {
+        return new Solution(height, width, getDistanceField().route(start));
+    }
+
+    /*
+     * Return an editor which opens and closes cells of the maze. It makes
+     * new mazes with the changes, and this maze stays as it is
+     */
+    public MazeEditor edit() {
+        return new MazeEditor(this, toIndex(getEntrance()), toIndex(getExit()));
+    }
+
+    //Return the walls of the maze, which cannot be changed through the returned grid
+    public Grid getGrid() {
+        return view;
+    }
+
+    /*
+     * Return a view of the cell with the given coordinates. Cells are
+     * not stored in the maze, so a new one is created on every call
+     */
+    public Cell getCell(int row, int column) {
+        return getCell(row, column, null);
+    }
+
+    //Return a view of the cell which is marked as escape if it is a part of the solution
+    public Cell getCell(int row, int column, Solution solution) {
+        if (grid.isWall(row, column))
+            return new Cell(row, column, WALL);
+        if (solution != null && solution.contains(row, column))
+            return new Cell(row, column, ESCAPE);
+        return new Cell(row, column, PASSAGE);
+    }
+
+    /*
+     * Return the string representation of the grid with the path
+     * of the solution, if it is not null
+     */
+    private String toString(Solution solution) {
+        var out = new StringWriter();
+        try {
+            new BlockRenderer(this, solution).render(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
     }
 
     //Return the string representation of the grid
     @Override
     public String toString() {
-        return toString(false);
+        return toString(null);
     }
 
     /*
@@ -185,55 +586,57 @@ public class Maze {
      */
     public static Maze load(String str) {
         try {
-            var whole = str.split("\n");
-            var size = whole[0].split(" ");
-            var height = parseInt(size[0]);
-            var width = parseInt(size[1]);
-            var grid = new Cell[height][width];
-            for (int i = 0; i < height; i++) {
-                var row = whole[i + 1].split(" ");
-                for (int j = 0; j < width; j++)
-                    grid[i][j] = new Cell(
-                        i, j, intToType(parseInt(row[j]))
-                    );
-            }
-            return new Maze(height, width, grid);
-        } catch (Exception e) {
-            throw new IllegalArgumentException(
-                "Cannot load the maze. " +
-                    "It has an invalid format"
-            );
+            return TextMazeReader.read(new StringReader(str));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    //Creates a maze instance with given height, width and grid
-    private Maze(int height, int width, Cell[][] grid) {
+    /*
+     * Creates a maze from a grid which is already filled, for example
+     * one read from a file. The grid must not be changed afterwards
+     */
+    public static Maze load(Grid grid) {
+        return new Maze(grid.getHeight(), grid.getWidth(), grid, 0, UNSEEDED);
+    }
+
+    //Creates a maze instance with given height, width, grid and the seed it is generated from
+    private Maze(int height, int width, Grid grid, long seed, int version) {
         this.height = height;
         this.width = width;
         this.grid = grid;
-    }
-
-    //Converts 1 to the WALL and 0 to the PASSAGE
-    private static Cell.Type intToType(int val) {
-        return val == 1 ? WALL : PASSAGE;
+        this.view = new ReadOnlyGrid(grid);
+        this.seed = seed;
+        this.version = version;
     }
 
     //Converts the maze to the serialized form
     public String export() {
+        var event = new ExportEvent("text");
+        event.begin();
+        var start = System.nanoTime();
         var sb = new StringBuilder();
         sb.append(height).append(' ')
           .append(width).append('\n');
-        for (var row : grid) {
-            for (var cell : row)
-                sb.append(typeToInt(cell))
-                  .append(' ');
+        for (int i = 0; i < height; i++) {
+            for (int k = 0; k < grid.getStride(); k++) {
+                var walls = grid.getWallWord(i, k);
+                var end = Math.min(width - k * WORD_BITS, WORD_BITS);
+                for (int b = 0; b < end; b++)
+                    sb.append(typeToInt(walls >>> b & 1))
+                      .append(' ');
+            }
             sb.append('\n');
         }
+        event.setResult(height, width, sb.length());
+        event.commit();
+        metrics().time(EXPORT, System.nanoTime() - start);
+        metrics().count(EXPORT_BYTES, sb.length());
         return sb.toString();
     }
 
-    //Converts WALL to the 1 and PASSAGE to the 0
-    private int typeToInt(Cell cell) {
-        return cell.isWall() ? 1 : 0;
+    //Converts a wall bit to the 1 and a passage bit to the 0
+    private int typeToInt(long bit) {
+        return bit != 0 ? 1 : 0;
     }
 }
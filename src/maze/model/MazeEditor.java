@@ -0,0 +1,128 @@
+/*
+ *  This class opens and closes cells of a maze. Mazes are never changed,
+ *  so the editor changes its own copy of the walls and makes a new maze
+ *  of them on apply, while the mazes made before stay as they were.
+ *
+ *  The escape path of the edited walls is kept by an IncrementalSolver,
+ *  which repairs it for all the changes made since the last solve in one
+ *  pass instead of searching again. An editor is used by one thread.
+ */
+package maze.model;
+
+import maze.algo.solving.IncrementalSolver;
+
+import java.util.Arrays;
+
+public class MazeEditor {
+
+    //The height of the maze in cells
+    private final int height;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Index of the entrance cell
+    private final int entrance;
+
+    //Index of the exit cell
+    private final int exit;
+
+    //The last maze made by the editor or the maze it started from
+    private Maze maze;
+
+    //Walls changed since the last maze was made, null if there are no changes
+    private PackedGrid grid;
+
+    //Solver of the escape path, created on the first solve
+    private IncrementalSolver solver;
+
+    //Cells changed since the last solve
+    private int[] changed = new int[16];
+
+    //Number of cells changed since the last solve
+    private int changedCount;
+
+    MazeEditor(Maze maze, int entrance, int exit) {
+        this.height = maze.getHeight();
+        this.width = maze.getWidth();
+        this.entrance = entrance;
+        this.exit = exit;
+        this.maze = maze;
+    }
+
+    //Turns the cell into a passage
+    public MazeEditor open(int row, int column) {
+        return setWall(row, column, false);
+    }
+
+    //Turns the cell into a wall
+    public MazeEditor close(int row, int column) {
+        return setWall(row, column, true);
+    }
+
+    //Makes the cell a wall or a passage, the first change copies the walls of the maze
+    public MazeEditor setWall(int row, int column, boolean wall) {
+        if (row < 0 || row >= height || column < 0 || column >= width)
+            throw new IllegalArgumentException("The cell is outside of the maze");
+        if (walls().isWall(row, column) == wall)
+            return this;
+        if (grid == null)
+            grid = copy(maze.getGrid());
+        grid.setWall(row, column, wall);
+        if (solver != null) {
+            if (changedCount == changed.length)
+                changed = Arrays.copyOf(changed, 2 * changedCount);
+            changed[changedCount++] = row * width + column;
+        }
+        return this;
+    }
+
+    /*
+     * Return a maze with all the changes made so far. The editor goes on
+     * with a new copy of the walls when it is changed again
+     */
+    public Maze apply() {
+        if (grid != null) {
+            maze = Maze.load(grid);
+            grid = null;
+        }
+        return maze;
+    }
+
+    /*
+     * Return a shortest path from the entrance to the exit of the walls
+     * as they are now, whether they are applied or not. The path is
+     * repaired for the changes since the last call
+     */
+    public Solution solve() {
+        int[] path;
+        if (solver == null) {
+            solver = new IncrementalSolver(walls(), entrance, exit);
+            path = solver.findPath();
+        } else {
+            path = solver.update(walls(), Arrays.copyOf(changed, changedCount));
+        }
+        changedCount = 0;
+        return new Solution(height, width, path);
+    }
+
+    //Return the number of cells taken from the open set by the last solve
+    public long getExpanded() {
+        return solver != null ? solver.getExpanded() : 0;
+    }
+
+    //Return the walls as they are now
+    private Grid walls() {
+        return grid != null ? grid : maze.getGrid();
+    }
+
+    //Return a copy of the walls of the grid on the heap
+    private static PackedGrid copy(Grid source) {
+        var copy = new PackedGrid(source.getHeight(), source.getWidth());
+        for (int i = 0; i < source.getHeight(); i++) {
+            for (int k = 0; k < source.getStride(); k++)
+                copy.setWallWord(i, k, source.getWallWord(i, k));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ *  This class keeps the maze grid outside of the Java heap, in direct
+ *  buffers or in a memory-mapped file. The words of the rows are laid
+ *  out like in PackedGrid, as little-endian longs, and split between
+ *  buffers of at most 1 GiB.
+ *
+ *  A grid mapped from a file is bounded only by the address space and
+ *  the disk. A grid in direct buffers stays outside of the heap but
+ *  counts against -XX:MaxDirectMemorySize, which is as large as the
+ *  maximal heap unless it is set, so larger grids should be mapped.
+ */
+package maze.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+public final class OffHeapGrid implements Grid {
+
+    //Every buffer holds 2^27 words, which is 1 GiB
+    private static final int CHUNK_SHIFT = 27;
+
+    //Mask of the position of a word inside its buffer
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    //Height of the grid in cells
+    private final int height;
+
+    //Width of the grid in cells
+    private final int width;
+
+    //Number of words used by one row
+    private final int stride;
+
+    //Mask of the bits in the last word of a row that belong to the grid
+    private final long tailMask;
+
+    //Buffers holding the words one after another
+    private final ByteBuffer[] chunks;
+
+    private OffHeapGrid(int height, int width, ByteBuffer[] chunks) {
+        this.height = height;
+        this.width = width;
+        this.stride = (width + WORD_BITS - 1) / WORD_BITS;
+        var tail = width % WORD_BITS;
+        this.tailMask = tail == 0 ? -1L : (1L << tail) - 1;
+        this.chunks = chunks;
+        for (int i = 0; i < chunks.length; i++)
+            chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /*
+     * Creates a grid of the given size in direct memory where every cell
+     * is a passage. It fails with an OutOfMemoryError when the grid does
+     * not fit into the limit of direct memory
+     */
+    public static OffHeapGrid allocate(int height, int width) {
+        var words = words(height, width);
+        var chunks = new ByteBuffer[chunkCount(words)];
+        for (int i = 0; i < chunks.length; i++)
+            chunks[i] = ByteBuffer.allocateDirect(chunkSize(words, i));
+        return new OffHeapGrid(height, width, chunks);
+    }
+
+    /*
+     * Creates a grid of the given size which lives in the file. The file
+     * is created or extended if needed and changes to the grid are
+     * written to it by the operating system
+     */
+    public static OffHeapGrid map(Path path, int height, int width) throws IOException {
+        try (var channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+            return map(channel, READ_WRITE, 0, height, width);
+        }
+    }
+
+    /*
+     * Creates a grid of the given size over the part of the file which
+     * starts at the position. The mapping stays valid after the channel
+     * is closed
+     */
+    public static OffHeapGrid map(FileChannel channel, FileChannel.MapMode mode,
+                                  long position, int height, int width) throws IOException {
+        var words = words(height, width);
+        if (mode != READ_WRITE && channel.size() < position + words * Long.BYTES) {
+            throw new IllegalArgumentException(
+                "The file is too small for the grid");
+        }
+        var chunks = new ByteBuffer[chunkCount(words)];
+        for (int i = 0; i < chunks.length; i++) {
+            var offset = position + ((long) i << CHUNK_SHIFT) * Long.BYTES;
+            chunks[i] = channel.map(mode, offset, chunkSize(words, i));
+        }
+        return new OffHeapGrid(height, width, chunks);
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getStride() {
+        return stride;
+    }
+
+    @Override
+    public boolean isWall(int row, int column) {
+        return (getWallWord(row, column / WORD_BITS) & 1L << column) != 0;
+    }
+
+    @Override
+    public void setWall(int row, int column, boolean wall) {
+        var word = column / WORD_BITS;
+        var bits = getWallWord(row, word);
+        setWallWord(row, word, wall ? bits | 1L << column : bits & ~(1L << column));
+    }
+
+    @Override
+    public long getWallWord(int row, int word) {
+        var offset = (long) row * stride + word;
+        return chunks[(int) (offset >>> CHUNK_SHIFT)]
+            .getLong((int) (offset & CHUNK_MASK) * Long.BYTES);
+    }
+
+    @Override
+    public void setWallWord(int row, int word, long bits) {
+        var offset = (long) row * stride + word;
+        chunks[(int) (offset >>> CHUNK_SHIFT)]
+            .putLong((int) (offset & CHUNK_MASK) * Long.BYTES,
+                     word == stride - 1 ? bits & tailMask : bits);
+    }
+
+    //Return the number of words of a grid with the given size
+    private static long words(int height, int width) {
+        if (height < 1 || width < 1) {
+            throw new IllegalArgumentException(
+                "Both the height and the width must be positive");
+        }
+        return (long) height * ((width + WORD_BITS - 1) / WORD_BITS);
+    }
+
+    //Return the number of buffers needed for the words
+    private static int chunkCount(long words) {
+        return (int) ((words + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    //Return the size in bytes of the buffer with the given index
+    private static int chunkSize(long words, int chunk) {
+        var start = (long) chunk << CHUNK_SHIFT;
+        return (int) Math.min(words - start, 1L << CHUNK_SHIFT) * Long.BYTES;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  This class stores the maze grid as bits instead of cell objects.
+ *  Every cell takes one bit of a long array on the heap. Each row
+ *  starts on a new word so that whole rows can be filled and scanned
+ *  a word at a time.
+ */
+package maze.model;
+
+import java.util.Arrays;
+
+public final class PackedGrid implements Grid {
+
+    //Height of the grid in cells
+    private final int height;
+
+    //Width of the grid in cells
+    private final int width;
+
+    //Number of words used by one row
+    private final int stride;
+
+    //Mask of the bits in the last word of a row that belong to the grid
+    private final long tailMask;
+
+    //One bit per cell, a set bit means the cell is a wall
+    private final long[] walls;
+
+    //Creates a grid of the given size where every cell is a passage
+    public PackedGrid(int height, int width) {
+        if (height < 1 || width < 1) {
+            throw new IllegalArgumentException(
+                "Both the height and the width must be positive");
+        }
+        this.height = height;
+        this.width = width;
+        this.stride = (width + WORD_BITS - 1) / WORD_BITS;
+        var tail = width % WORD_BITS;
+        this.tailMask = tail == 0 ? -1L : (1L << tail) - 1;
+        this.walls = new long[Math.multiplyExact(height, stride)];
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getStride() {
+        return stride;
+    }
+
+    @Override
+    public boolean isWall(int row, int column) {
+        return (walls[offset(row, column)] & bit(column)) != 0;
+    }
+
+    @Override
+    public void setWall(int row, int column, boolean wall) {
+        var offset = offset(row, column);
+        if (wall) {
+            walls[offset] |= bit(column);
+        } else {
+            walls[offset] &= ~bit(column);
+        }
+    }
+
+    @Override
+    public long getWallWord(int row, int word) {
+        return walls[row * stride + word];
+    }
+
+    @Override
+    public void setWallWord(int row, int word, long bits) {
+        walls[row * stride + word] = word == stride - 1
+            ? bits & tailMask
+            : bits;
+    }
+
+    @Override
+    public void fillRow(int row, long pattern) {
+        var from = row * stride;
+        Arrays.fill(walls, from, from + stride, pattern);
+        walls[from + stride - 1] &= tailMask;
+    }
+
+    //Return the index of the word holding the given cell
+    private int offset(int row, int column) {
+        return row * stride + column / WORD_BITS;
+    }
+
+    //Return the mask of the given column inside its word
+    private static long bit(int column) {
+        return 1L << column;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *  This class shows a grid without letting its walls be changed. A maze
+ *  hands it out, so the walls shared between threads stay the same.
+ */
+package maze.model;
+
+final class ReadOnlyGrid implements Grid {
+
+    //The grid which is shown
+    private final Grid grid;
+
+    ReadOnlyGrid(Grid grid) {
+        this.grid = grid;
+    }
+
+    @Override
+    public int getHeight() {
+        return grid.getHeight();
+    }
+
+    @Override
+    public int getWidth() {
+        return grid.getWidth();
+    }
+
+    @Override
+    public int getStride() {
+        return grid.getStride();
+    }
+
+    @Override
+    public boolean isWall(int row, int column) {
+        return grid.isWall(row, column);
+    }
+
+    @Override
+    public void setWall(int row, int column, boolean wall) {
+        throw new UnsupportedOperationException("The walls of a maze cannot be changed");
+    }
+
+    @Override
+    public long getWallWord(int row, int word) {
+        return grid.getWallWord(row, word);
+    }
+
+    @Override
+    public void setWallWord(int row, int word, long bits) {
+        throw new UnsupportedOperationException("The walls of a maze cannot be changed");
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *  This class holds the escape path found in a maze. It is kept apart from
+ *  the maze, which never changes, so every thread can solve and draw the
+ *  same maze with its own solutions. A solution never changes either.
+ *  Drawing asks which cells of a part of the maze are on the path, which
+ *  is answered from the path cells in sorted order, so nothing of the
+ *  size of the whole maze is kept.
+ */
+package maze.model;
+
+import java.util.Arrays;
+
+import static maze.model.Grid.WORD_BITS;
+
+public final class Solution {
+
+    //The height of the maze in cells
+    private final int height;
+
+    //The width of the maze in cells
+    private final int width;
+
+    //Indices of the cells of the path in order, row * width + column
+    private final int[] path;
+
+    //Cells of the path in increasing order, null until they are needed
+    private volatile int[] sorted;
+
+    //Creates a solution from a path which is not shared with anybody else
+    Solution(int height, int width, int[] path) {
+        this.height = height;
+        this.width = width;
+        this.path = path;
+    }
+
+    //Checks if there is no path from the entrance to the exit
+    public boolean isEmpty() {
+        return path.length == 0;
+    }
+
+    //Return the number of cells of the path
+    public int getLength() {
+        return path.length;
+    }
+
+    //Return the index of the i-th cell of the path, row * width + column
+    public int getPathCell(int i) {
+        return path[i];
+    }
+
+    //Return indices of the cells of the path in order
+    public int[] getPath() {
+        return path.clone();
+    }
+
+    //Checks if the cell is a part of the path
+    public boolean contains(int row, int column) {
+        return Arrays.binarySearch(getSortedCells(), row * width + column) >= 0;
+    }
+
+    /*
+     * Return the bits of the given word of a row, packed like the walls
+     * of the grid, where a set bit marks a cell of the path. Only the
+     * path cells inside the word are looked at
+     */
+    public long getWord(int row, int word) {
+        var cells = getSortedCells();
+        var first = row * width + word * WORD_BITS;
+        var last = row * width + Math.min(width, (word + 1) * WORD_BITS);
+        var at = Arrays.binarySearch(cells, first);
+        var bits = 0L;
+        for (int i = at >= 0 ? at : -at - 1; i < cells.length && cells[i] < last; i++)
+            bits |= 1L << (cells[i] - first);
+        return bits;
+    }
+
+    /*
+     * Return the cells of the path in increasing order, sorting them on
+     * the first call. Two threads may both sort them, but they get the
+     * same cells
+     */
+    private int[] getSortedCells() {
+        var cells = sorted;
+        if (cells == null) {
+            cells = path.clone();
+            Arrays.sort(cells);
+            sorted = cells;
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ *  This interface describes a cache of solutions shared by all mazes.
+ *  Solutions are keyed by the content hash of the maze and the indices of
+ *  the start and the end cells, so a maze which is loaded again or
+ *  generated with the same walls finds the solutions of the earlier one.
+ */
+package maze.model;
+
+public interface SolutionCache {
+
+    //Return the cached solution or null if there is none
+    Solution get(long contentHash, int start, int end);
+
+    //Stores the solution, possibly evicting others
+    void put(long contentHash, int start, int end, Solution solution);
+
+    //Return the number of calls to get which found a solution
+    long getHitCount();
+
+    //Return the number of calls to get which found nothing
+    long getMissCount();
+
+    //Return the number of solutions removed to make room for others
+    long getEvictionCount();
+
+    //Return a cache which keeps nothing but still counts the misses
+    static SolutionCache none() {
+        return new LruSolutionCache(0, 0);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *  This class draws a maze row by row, two block characters per cell, as
+ *  Maze.toString does. The tiles are encoded once and every row is built
+ *  in the same buffer and written out before the next one, so the memory
+ *  used depends only on the width of the maze and the output starts at
+ *  once. A part of the maze can be drawn as well, reading only its cells.
+ */
+package maze.render;
+
+import maze.model.Maze;
+import maze.model.Solution;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static maze.model.Grid.WORD_BITS;
+
+public class BlockRenderer {
+
+    //Characters of a wall cell
+    private static final String WALL = "██";
+
+    //Characters of a cell on the escape path
+    private static final String ESCAPE = "▓▓";
+
+    //Characters of a passage cell
+    private static final String PASSAGE = "  ";
+
+    //Encoded tiles, indexed by 0 for a passage, 1 for the escape and 2 for a wall
+    private static final byte[][] TILE_BYTES = {
+        PASSAGE.getBytes(UTF_8), ESCAPE.getBytes(UTF_8), WALL.getBytes(UTF_8)
+    };
+
+    //Tiles as characters in the same order
+    private static final char[][] TILE_CHARS = {
+        PASSAGE.toCharArray(), ESCAPE.toCharArray(), WALL.toCharArray()
+    };
+
+    //The maze to draw
+    private final Maze maze;
+
+    //The escape path to draw, null to draw only the walls
+    private final Solution solution;
+
+    public BlockRenderer(Maze maze) {
+        this(maze, null);
+    }
+
+    public BlockRenderer(Maze maze, Solution solution) {
+        this.maze = maze;
+        this.solution = solution;
+    }
+
+    //Writes the picture to the stream, which is flushed but not closed
+    public void render(OutputStream out) throws IOException {
+        render(out, 0, 0, maze.getHeight(), maze.getWidth());
+    }
+
+    //Writes the picture to the channel, which is not closed
+    public void render(WritableByteChannel channel) throws IOException {
+        render(channel, 0, 0, maze.getHeight(), maze.getWidth());
+    }
+
+    //Writes the picture to the writer, which is flushed but not closed
+    public void render(Writer out) throws IOException {
+        render(out, 0, 0, maze.getHeight(), maze.getWidth());
+    }
+
+    /*
+     * Writes the part of the picture with the given top left cell and
+     * size in cells. The part is cut at the borders of the maze, and
+     * only its cells are read from the grid
+     */
+    public void render(OutputStream out, int top, int left,
+                       int rows, int columns) throws IOException {
+        var bottom = bottom(top, rows);
+        var right = right(left, columns);
+        var row = new byte[maxRowBytes(right - left)];
+        for (int i = top; i < bottom; i++)
+            out.write(row, 0, encodeRow(i, left, right, row));
+        out.flush();
+    }
+
+    //Writes the part of the picture like the stream version but to the channel
+    public void render(WritableByteChannel channel, int top, int left,
+                       int rows, int columns) throws IOException {
+        var bottom = bottom(top, rows);
+        var right = right(left, columns);
+        var row = new byte[maxRowBytes(right - left)];
+        var buffer = ByteBuffer.wrap(row);
+        for (int i = top; i < bottom; i++) {
+            buffer.clear().limit(encodeRow(i, left, right, row));
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    //Writes the part of the picture like the stream version but to the writer
+    public void render(Writer out, int top, int left,
+                       int rows, int columns) throws IOException {
+        var bottom = bottom(top, rows);
+        var right = right(left, columns);
+        var row = new char[2 * (right - left) + 1];
+        row[row.length - 1] = '\n';
+        var grid = maze.getGrid();
+        for (int i = top; i < bottom; i++) {
+            var n = 0;
+            var walls = 0L;
+            var path = 0L;
+            for (int j = left; j < right; j++) {
+                if (j == left || j % WORD_BITS == 0) {
+                    walls = grid.getWallWord(i, j / WORD_BITS);
+                    path = escapeWord(i, j / WORD_BITS);
+                }
+                var tile = TILE_CHARS[tileOf(walls, path, j)];
+                row[n++] = tile[0];
+                row[n++] = tile[1];
+            }
+            out.write(row);
+        }
+        out.flush();
+    }
+
+    /*
+     * Encodes the columns of the row from left up to right into the
+     * buffer, ending them with a line feed. Return the number of bytes used
+     */
+    private int encodeRow(int row, int left, int right, byte[] buffer) {
+        var grid = maze.getGrid();
+        var n = 0;
+        var walls = 0L;
+        var path = 0L;
+        for (int j = left; j < right; j++) {
+            if (j == left || j % WORD_BITS == 0) {
+                walls = grid.getWallWord(row, j / WORD_BITS);
+                path = escapeWord(row, j / WORD_BITS);
+            }
+            var tile = TILE_BYTES[tileOf(walls, path, j)];
+            for (var value : tile)
+                buffer[n++] = value;
+        }
+        buffer[n++] = '\n';
+        return n;
+    }
+
+    //Return the row below the part, cut at the bottom of the maze
+    private int bottom(int top, int rows) {
+        if (top < 0 || rows < 0 || top > maze.getHeight())
+            throw new IllegalArgumentException("The rows are outside of the maze");
+        return (int) Math.min((long) top + rows, maze.getHeight());
+    }
+
+    //Return the column after the part, cut at the right side of the maze
+    private int right(int left, int columns) {
+        if (left < 0 || columns < 0 || left > maze.getWidth())
+            throw new IllegalArgumentException("The columns are outside of the maze");
+        return (int) Math.min((long) left + columns, maze.getWidth());
+    }
+
+    //Return the escape bits of the word or no bits if there is no solution
+    private long escapeWord(int row, int word) {
+        return solution != null ? solution.getWord(row, word) : 0;
+    }
+
+    /*
+     * Return the index of the tile of the cell in the given column, whose
+     * bits are in the words. Shifts of longs only use the low six bits
+     */
+    private static int tileOf(long walls, long path, int column) {
+        if ((walls >>> column & 1) != 0)
+            return 2;
+        return (int) (path >>> column & 1);
+    }
+
+    //Return the size of the buffer which fits the longest possible row of the given width
+    private static int maxRowBytes(int columns) {
+        var tile = Math.max(TILE_BYTES[2].length, TILE_BYTES[1].length);
+        return Math.addExact(Math.multiplyExact(tile, columns), 1);
+    }
+}
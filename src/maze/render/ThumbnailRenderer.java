@@ -0,0 +1,195 @@
+/*
+ *  This class draws a downsampled overview of a maze with braille
+ *  characters. Every character has two columns of four dots and every dot
+ *  stands for a square of scale x scale cells. A dot is set when most of
+ *  a few cells sampled evenly from its square are walls, so the cost
+ *  depends on the size of the picture rather than the size of the maze.
+ *
+ *  Characters crossed by the escape path show only the dots of the path,
+ *  which keeps the path visible as a line through the walls.
+ */
+package maze.render;
+
+import maze.model.Maze;
+import maze.model.Solution;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+public class ThumbnailRenderer {
+
+    //The braille character without dots
+    private static final int BRAILLE_BASE = 0x2800;
+
+    //Bits of the braille dots by the row and the column of a dot in a character
+    private static final int[][] DOTS = {{0x01, 0x08}, {0x02, 0x10}, {0x04, 0x20}, {0x40, 0x80}};
+
+    //Rows of dots in a character
+    private static final int DOT_ROWS = 4;
+
+    //Columns of dots in a character
+    private static final int DOT_COLUMNS = 2;
+
+    //Largest number of cells sampled along each side of the square of a dot
+    private static final int SAMPLES = 3;
+
+    //The maze to draw
+    private final Maze maze;
+
+    //Size of the square of cells behind a dot
+    private final int scale;
+
+    //The escape path to draw, null to draw only the walls
+    private final Solution solution;
+
+    public ThumbnailRenderer(Maze maze, int scale) {
+        this(maze, scale, null);
+    }
+
+    public ThumbnailRenderer(Maze maze, int scale, Solution solution) {
+        if (scale < 1)
+            throw new IllegalArgumentException("The scale must be positive");
+        this.maze = maze;
+        this.scale = scale;
+        this.solution = solution;
+    }
+
+    //Return the smallest scale which fits the whole maze into the given number of characters
+    public static int fit(Maze maze, int lines, int characters) {
+        if (lines < 1 || characters < 1)
+            throw new IllegalArgumentException("The picture must have at least one character");
+        var down = ceilDiv(maze.getHeight(), (long) DOT_ROWS * lines);
+        var across = ceilDiv(maze.getWidth(), (long) DOT_COLUMNS * characters);
+        return (int) Math.max(1, Math.max(down, across));
+    }
+
+    //Return the number of maze rows covered by one line of characters
+    public int getRowsPerLine() {
+        return DOT_ROWS * scale;
+    }
+
+    //Return the number of maze columns covered by one character
+    public int getColumnsPerCharacter() {
+        return DOT_COLUMNS * scale;
+    }
+
+    /*
+     * Writes at most the given number of lines and characters in a line,
+     * starting at the given top left cell. The picture is cut at the
+     * borders of the maze. The stream is flushed but not closed
+     */
+    public void render(OutputStream out, int top, int left,
+                       int lines, int characters) throws IOException {
+        var picture = draw(top, left, lines, characters);
+        var length = lineLength(left, characters);
+        var count = length == 0 ? 0 : picture.length / length;
+        var line = new byte[3 * length + 1];
+        line[line.length - 1] = '\n';
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < length; k++) {
+                var dots = picture[i * length + k] & 0xFF;
+                line[3 * k] = (byte) 0xE2;
+                line[3 * k + 1] = (byte) (0xA0 | dots >>> 6);
+                line[3 * k + 2] = (byte) (0x80 | dots & 0x3F);
+            }
+            out.write(line);
+        }
+        out.flush();
+    }
+
+    //Writes the picture like the stream version but to the writer
+    public void render(Writer out, int top, int left,
+                       int lines, int characters) throws IOException {
+        var picture = draw(top, left, lines, characters);
+        var length = lineLength(left, characters);
+        var count = length == 0 ? 0 : picture.length / length;
+        var line = new char[length + 1];
+        line[length] = '\n';
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < length; k++)
+                line[k] = (char) (BRAILLE_BASE | picture[i * length + k] & 0xFF);
+            out.write(line);
+        }
+        out.flush();
+    }
+
+    /*
+     * Return the dots of every character of the picture, line after line.
+     * Only the sampled cells are read from the grid, and the escape path
+     * is walked once to find the characters it crosses
+     */
+    private byte[] draw(int top, int left, int lines, int characters) {
+        if (top < 0 || left < 0 || lines < 0 || characters < 0
+            || top > maze.getHeight() || left > maze.getWidth())
+            throw new IllegalArgumentException("The picture is outside of the maze");
+        var count = (int) Math.min(lines, ceilDiv(maze.getHeight() - top, getRowsPerLine()));
+        var length = lineLength(left, characters);
+        var picture = new byte[Math.multiplyExact(count, length)];
+        var grid = maze.getGrid();
+        var samples = Math.min(scale, SAMPLES);
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < length; k++) {
+                var dots = 0;
+                for (int r = 0; r < DOT_ROWS; r++) {
+                    for (int c = 0; c < DOT_COLUMNS; c++) {
+                        var row = top + (long) (i * DOT_ROWS + r) * scale;
+                        var column = left + (long) (k * DOT_COLUMNS + c) * scale;
+                        var walls = 0;
+                        var total = 0;
+                        for (int a = 0; a < samples; a++) {
+                            var y = row + (2L * a + 1) * scale / (2 * samples);
+                            if (y >= maze.getHeight())
+                                break;
+                            for (int b = 0; b < samples; b++) {
+                                var x = column + (2L * b + 1) * scale / (2 * samples);
+                                if (x >= maze.getWidth())
+                                    break;
+                                total++;
+                                if (grid.isWall((int) y, (int) x))
+                                    walls++;
+                            }
+                        }
+                        if (total > 0 && 2 * walls > total)
+                            dots |= DOTS[r][c];
+                    }
+                }
+                picture[i * length + k] = (byte) dots;
+            }
+        }
+        if (solution != null)
+            drawEscape(picture, top, left, count, length);
+        return picture;
+    }
+
+    //Replaces the characters crossed by the escape path with the dots of the path
+    private void drawEscape(byte[] picture, int top, int left, int count, int length) {
+        var crossed = new boolean[picture.length];
+        for (int n = 0; n < solution.getLength(); n++) {
+            var cell = solution.getPathCell(n);
+            var row = cell / maze.getWidth() - top;
+            var column = cell % maze.getWidth() - left;
+            if (row < 0 || column < 0)
+                continue;
+            var i = row / getRowsPerLine();
+            var k = column / getColumnsPerCharacter();
+            if (i >= count || k >= length)
+                continue;
+            var index = i * length + k;
+            if (!crossed[index]) {
+                crossed[index] = true;
+                picture[index] = 0;
+            }
+            picture[index] |= DOTS[row % getRowsPerLine() / scale][column % getColumnsPerCharacter() / scale];
+        }
+    }
+
+    //Return the number of characters in a line, cut at the right side of the maze
+    private int lineLength(int left, int characters) {
+        return (int) Math.min(characters, ceilDiv(maze.getWidth() - left, getColumnsPerCharacter()));
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}
@@ -5,7 +5,15 @@
  */
 package maze.util;
 
+import maze.algo.generation.EllerGenerator;
+import maze.io.BinaryFormat;
+import maze.io.DistanceFieldFormat;
+import maze.io.MazeFiles;
+import maze.io.TextRowSink;
 import maze.model.Maze;
+import maze.model.Solution;
+import maze.render.BlockRenderer;
+import maze.render.ThumbnailRenderer;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -17,12 +25,30 @@ import static java.lang.Integer.parseInt;
 
 public class Console {
 
+    //Extension of the files which are saved in the binary form
+    private static final String BINARY_EXTENSION = ".mzb";
+
+    //Extension of the files which keep only the seed of the maze
+    private static final String SEED_EXTENSION = ".mzs";
+
+    //Number of lines shown while exploring the maze
+    private static final int VIEW_LINES = 24;
+
+    //Number of cells in a line shown at the closest zoom, two characters each
+    private static final int VIEW_CELLS = 40;
+
+    //Number of braille characters in a line shown when zoomed out
+    private static final int VIEW_CHARACTERS = 80;
+
     //Scanner for user input
     private Scanner scanner;
 
     //The current maze
     private Maze maze;
 
+    //Escape path of the current maze, null until it is found
+    private Solution solution;
+
     //Self explanatory
     private boolean isMazeAvailable = false;
 
@@ -56,6 +82,12 @@ public class Console {
                     case 5:
                         findEscape();
                         break;
+                    case 6:
+                        generateToFile();
+                        break;
+                    case 7:
+                        explore();
+                        break;
                     default:
                         System.out.println("Incorrect option. Please try again");
                         break;
@@ -80,6 +112,9 @@ public class Console {
             System.out.println("4. Display the maze");
             System.out.println("5. Find the escape");
         }
+        System.out.println("6. Generate a maze straight into a file");
+        if (isMazeAvailable)
+            System.out.println("7. Explore the maze");
         System.out.println("0. Exit");
     }
 
@@ -107,10 +142,36 @@ public class Console {
         } else {
             System.out.println("Cannot generate a maze. Invalid size");
         }
+        solution = null;
         isMazeAvailable = true;
         display();
     }
 
+    /**
+     * Asks for the dimensions and a filename and then writes a new
+     * maze to the file row by row without keeping it in memory
+     */
+    private void generateToFile() {
+        System.out.println("Enter the size of the new maze (in the [size] or [height width] format)");
+        var split = scanner.nextLine().split(" ");
+        if (split.length != 1 && split.length != 2) {
+            System.out.println("Cannot generate a maze. Invalid size");
+            return;
+        }
+        var height = parseInt(split[0]);
+        var width = parseInt(split[split.length - 1]);
+        System.out.println("Enter the filename");
+        var filename = scanner.nextLine();
+        try (var out = Files.newBufferedWriter(Paths.get(filename))) {
+            new EllerGenerator(height, width).generate(new TextRowSink(out));
+            System.out.println("The maze is saved");
+        } catch (IOException e) {
+            System.out.println("Cannot write to file " + filename);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     /**
      * Asks for a filename and then loads the serialized maze
      * from the corresponding file which replaces the old one
@@ -119,8 +180,8 @@ public class Console {
         System.out.println("Enter the filename");
         var filename = scanner.nextLine();
         try {
-            var content = Files.readString(Paths.get(filename));
-            maze = Maze.load(content);
+            maze = MazeFiles.load(Paths.get(filename));
+            solution = null;
             isMazeAvailable = true;
             System.out.println("The maze is loaded");
         } catch (IOException e) {
@@ -132,28 +193,112 @@ public class Console {
 
     /**
      * Asks for a filename and then saves the serialized maze
-     * to the corresponding file
+     * to the corresponding file. Files with the binary extension
+     * get the binary form, files with the seed extension keep only
+     * the seed of the maze, all the others get the text one
      */
     private void save() {
-        System.out.println("Enter the filename");
+        System.out.println("Enter the filename (use the " + BINARY_EXTENSION + " extension for the binary form"
+                           + " or " + SEED_EXTENSION + " to keep only the seed)");
         var filename = scanner.nextLine();
         try {
-            var export = maze.export();
-            Files.write(Paths.get(filename), export.getBytes());
+            if (filename.endsWith(SEED_EXTENSION)) {
+                BinaryFormat.writeSeed(maze, Paths.get(filename));
+            } else if (filename.endsWith(BINARY_EXTENSION)) {
+                BinaryFormat.write(maze, Paths.get(filename));
+            } else {
+                var export = maze.export();
+                Files.write(Paths.get(filename), export.getBytes());
+            }
+            if (maze.hasDistanceField())
+                DistanceFieldFormat.write(maze, Paths.get(filename));
             System.out.println("The maze is saved");
         } catch (IOException e) {
             System.out.println("Cannot write to file " + filename);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
         }
     }
 
     //Prints current maze
     private void display() {
-        System.out.println(maze);
+        render(null);
     }
 
     //Prints solved maze
     private void findEscape() {
-        System.out.println(maze.findEscape());
+        if (solution == null)
+            solution = maze.solve();
+        render(solution);
+    }
+
+    /**
+     * Shows a part of the maze which can be moved around and zoomed.
+     * The closest zoom shows cells as blocks, the others show an
+     * overview in braille characters where a dot covers several cells
+     */
+    private void explore() {
+        var maxZoom = 1 + Integer.SIZE - Integer.numberOfLeadingZeros(
+            ThumbnailRenderer.fit(maze, VIEW_LINES, VIEW_CHARACTERS) - 1);
+        var zoom = 0;
+        var top = 0;
+        var left = 0;
+        while (true) {
+            var scale = zoom == 0 ? 1 : 1 << zoom - 1;
+            var rows = zoom == 0 ? VIEW_LINES : VIEW_LINES * 4 * scale;
+            var columns = zoom == 0 ? VIEW_CELLS : VIEW_CHARACTERS * 2 * scale;
+            top = Math.max(0, Math.min(top, maze.getHeight() - rows));
+            left = Math.max(0, Math.min(left, maze.getWidth() - columns));
+            try {
+                if (zoom == 0) {
+                    new BlockRenderer(maze, solution).render(System.out, top, left, rows, columns);
+                } else {
+                    new ThumbnailRenderer(maze, scale, solution)
+                        .render(System.out, top, left, VIEW_LINES, VIEW_CHARACTERS);
+                }
+            } catch (IOException e) {
+                System.out.println("Cannot display the maze");
+                return;
+            }
+            System.out.println("Rows " + top + "-" + Math.min(top + rows, maze.getHeight())
+                               + ", columns " + left + "-" + Math.min(left + columns, maze.getWidth())
+                               + ". Use w, a, s, d to move, + and - to zoom, q to return");
+            switch (scanner.nextLine().trim()) {
+                case "w":
+                    top -= rows / 2;
+                    break;
+                case "s":
+                    top += rows / 2;
+                    break;
+                case "a":
+                    left -= columns / 2;
+                    break;
+                case "d":
+                    left += columns / 2;
+                    break;
+                case "+":
+                    zoom = Math.max(0, zoom - 1);
+                    break;
+                case "-":
+                    zoom = Math.min(maxZoom, zoom + 1);
+                    break;
+                case "q":
+                    return;
+                default:
+                    System.out.println("Incorrect option. Please try again");
+                    break;
+            }
+        }
+    }
+
+    //Streams the maze to the console row by row with the solution, if it is not null
+    private void render(Solution solution) {
+        try {
+            new BlockRenderer(maze, solution).render(System.out);
+            System.out.println();
+        } catch (IOException e) {
+            System.out.println("Cannot display the maze");
+        }
     }
 
 
@@ -0,0 +1,336 @@
+/*
+ *  This class runs the same steps over many mazes without any questions,
+ *  for scripts and nightly jobs. The steps are given as directives, either
+ *  as program arguments starting with -- or as lines of a command file:
+ *
+ *      input <file or directory>          mazes to load, may be repeated
+ *      generate <count> <min> <max> <seed> mazes to generate instead
+ *      solve                              find the escape of every maze
+ *      distances                          measure the distances to the exit
+ *      save <text|binary|seed> <directory>  with the distances if measured
+ *      render <directory>                 draw every maze with its escape
+ *      summary <file>                     where to write the JSON summary
+ *      threads <count>
+ *      file <command file>                read more directives from a file
+ *
+ *  An input directory gives its files with the extension of one of the
+ *  forms a maze is saved in, .txt, .mzb or .mzs, but not the pictures.
+ *  Every maze goes through the steps in the given order on its own, and
+ *  the mazes are processed in parallel. The time of every step and the
+ *  error which stopped a maze are written to the summary.
+ */
+package maze.util;
+
+import maze.batch.BatchFormat;
+import maze.batch.BatchSpec;
+import maze.io.DistanceFieldFormat;
+import maze.io.MazeFiles;
+import maze.model.Maze;
+import maze.model.Solution;
+import maze.render.BlockRenderer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class Pipeline {
+
+    //Extension of the files with pictures of the mazes
+    private static final String RENDER_EXTENSION = ".render.txt";
+
+    //Files and directories the mazes are loaded from
+    private final List<Path> inputs = new ArrayList<>();
+
+    //Mazes to generate, null if they are loaded
+    private BatchSpec generate;
+
+    //Steps done to every maze in order
+    private final List<String[]> steps = new ArrayList<>();
+
+    //File the summary is written to, null if it is not needed
+    private Path summary;
+
+    //Number of mazes processed at once
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /*
+     * Creates a pipeline from program arguments. Every directive starts
+     * with -- and is followed by its words
+     */
+    public static Pipeline fromArgs(String[] args) throws IOException {
+        var pipeline = new Pipeline();
+        var words = new ArrayList<String>();
+        for (var arg : args) {
+            if (arg.startsWith("--") && !words.isEmpty()) {
+                pipeline.add(words.toArray(new String[0]));
+                words.clear();
+            }
+            words.add(arg.startsWith("--") ? arg.substring(2) : arg);
+        }
+        if (!words.isEmpty())
+            pipeline.add(words.toArray(new String[0]));
+        if (pipeline.inputs.isEmpty() && pipeline.generate == null)
+            throw new IllegalArgumentException("Give either inputs or generate");
+        if (!pipeline.inputs.isEmpty() && pipeline.generate != null)
+            throw new IllegalArgumentException("Give either inputs or generate, but not both");
+        return pipeline;
+    }
+
+    //Reads the directives of a command file, one per line, skipping blank lines and # comments
+    private void addFile(Path path) throws IOException {
+        for (var line : Files.readAllLines(path, UTF_8)) {
+            var comment = line.indexOf('#');
+            var text = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!text.isEmpty())
+                add(text.split("\\s+"));
+        }
+    }
+
+    //Adds one directive, its name followed by its words
+    private void add(String[] directive) throws IOException {
+        switch (directive[0]) {
+            case "input":
+                expect(directive, 2);
+                inputs.add(Paths.get(directive[1]));
+                break;
+            case "generate":
+                expect(directive, 5);
+                generate = new BatchSpec(parseInt(directive[1]), parseInt(directive[2]),
+                                         parseInt(directive[3]), parseLong(directive[4]),
+                                         Paths.get("."));
+                break;
+            case "solve":
+            case "distances":
+                expect(directive, 1);
+                steps.add(directive);
+                break;
+            case "save":
+                expect(directive, 3);
+                BatchFormat.valueOf(directive[1].toUpperCase(Locale.ROOT));
+                steps.add(directive);
+                break;
+            case "render":
+                expect(directive, 2);
+                steps.add(directive);
+                break;
+            case "summary":
+                expect(directive, 2);
+                summary = Paths.get(directive[1]);
+                break;
+            case "threads":
+                expect(directive, 2);
+                threads = parseInt(directive[1]);
+                if (threads < 1)
+                    throw new IllegalArgumentException("The number of threads must be positive");
+                break;
+            case "file":
+                expect(directive, 2);
+                addFile(Paths.get(directive[1]));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown directive " + directive[0]);
+        }
+    }
+
+    //Checks if the directive has the right number of words
+    private static void expect(String[] directive, int words) {
+        if (directive.length != words) {
+            throw new IllegalArgumentException(
+                "The directive " + directive[0] + " needs " + (words - 1) + " arguments");
+        }
+    }
+
+    /*
+     * Runs the steps over every maze and writes the summary. Return the
+     * number of mazes which failed
+     */
+    public int run() throws IOException, InterruptedException {
+        var start = System.nanoTime();
+        var names = jobNames();
+        var pool = new ForkJoinPool(threads);
+        Result[] results;
+        try {
+            results = pool.submit(() -> IntStream.range(0, names.size())
+                                                 .parallel()
+                                                 .mapToObj(i -> process(i, names.get(i)))
+                                                 .toArray(Result[]::new))
+                          .get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        var failed = (int) Arrays.stream(results).filter(r -> !r.ok).count();
+        var json = "{\"mazes\":" + results.length
+            + ",\"failed\":" + failed
+            + ",\"elapsedMillis\":" + millis(System.nanoTime() - start)
+            + ",\"results\":[\n"
+            + Arrays.stream(results).map(r -> r.json).collect(Collectors.joining(",\n"))
+            + "\n]}\n";
+        if (summary != null)
+            Files.writeString(summary, json, UTF_8);
+        System.out.println("Processed " + results.length + " mazes, " + failed + " failed");
+        return failed;
+    }
+
+    //Return the files to load or the names of the mazes to generate
+    private List<String> jobNames() throws IOException {
+        if (generate != null) {
+            return IntStream.range(0, generate.getCount())
+                            .mapToObj(i -> String.format("maze-%06d", i))
+                            .collect(Collectors.toList());
+        }
+        var names = new ArrayList<String>();
+        for (var input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (var files = Files.list(input)) {
+                    files.filter(Files::isRegularFile)
+                         .map(Path::toString)
+                         .filter(Pipeline::isMazeFile)
+                         .sorted()
+                         .forEach(names::add);
+                }
+            } else {
+                names.add(input.toString());
+            }
+        }
+        return names;
+    }
+
+    /*
+     * Checks if the file in an input directory holds a maze by its
+     * extension, so the summaries, pictures and distances written next to
+     * the mazes are skipped
+     */
+    private static boolean isMazeFile(String file) {
+        return !file.endsWith(RENDER_EXTENSION)
+            && Arrays.stream(BatchFormat.values()).anyMatch(format -> file.endsWith(format.getExtension()));
+    }
+
+    /*
+     * Loads or generates one maze and does every step to it. Return its
+     * result as a JSON object with the time of every step in milliseconds
+     */
+    private Result process(int index, String name) {
+        var json = new StringBuilder("{\"name\":").append(quote(name));
+        var times = new StringBuilder();
+        Maze maze = null;
+        Solution solution = null;
+        var ok = false;
+        var step = generate != null ? "generate" : "load";
+        try {
+            var time = System.nanoTime();
+            if (generate != null) {
+                maze = new Maze(generate.heightOf(index), generate.widthOf(index), generate.seedOf(index));
+            } else {
+                maze = MazeFiles.load(Paths.get(name));
+            }
+            times.append(quote(step)).append(':').append(millis(System.nanoTime() - time));
+            for (var directive : steps) {
+                step = directive[0];
+                time = System.nanoTime();
+                switch (step) {
+                    case "solve":
+                        solution = maze.solve();
+                        break;
+                    case "distances":
+                        maze.getDistanceField();
+                        break;
+                    case "save":
+                        var format = BatchFormat.valueOf(directive[1].toUpperCase(Locale.ROOT));
+                        var file = output(directive[2], index, name, format.getExtension());
+                        format.write(maze, file);
+                        if (maze.hasDistanceField())
+                            DistanceFieldFormat.write(maze, file);
+                        break;
+                    case "render":
+                        try (var out = new BufferedOutputStream(
+                            Files.newOutputStream(output(directive[1], index, name, RENDER_EXTENSION)))) {
+                            new BlockRenderer(maze, solution).render(out);
+                        }
+                        break;
+                }
+                times.append(',').append(quote(step)).append(':').append(millis(System.nanoTime() - time));
+            }
+            ok = true;
+            json.append(",\"ok\":true");
+        } catch (IOException | RuntimeException e) {
+            json.append(",\"ok\":false,\"failedStep\":").append(quote(step))
+                .append(",\"error\":").append(quote(String.valueOf(e)));
+        }
+        if (maze != null)
+            json.append(",\"height\":").append(maze.getHeight()).append(",\"width\":").append(maze.getWidth());
+        if (solution != null)
+            json.append(",\"pathLength\":").append(solution.getLength());
+        json.append(",\"millis\":{").append(times).append("}}");
+        return new Result(ok, json.toString());
+    }
+
+    /*
+     * Return the file in the directory named after the maze with the
+     * extension. Loaded mazes keep their whole file name after their index,
+     * so same-named inputs from other directories or formats never meet
+     */
+    private Path output(String directory, int index, String name, String extension) throws IOException {
+        var dir = Files.createDirectories(Paths.get(directory));
+        var base = generate != null ? name : String.format("%06d-%s", index, Paths.get(name).getFileName());
+        return dir.resolve(base + extension);
+    }
+
+    //Return the nanoseconds as milliseconds with three decimals
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    //Return the text as a JSON string
+    private static String quote(String text) {
+        var sb = new StringBuilder("\"");
+        for (var c : text.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    //Outcome of one maze with its part of the summary
+    private static final class Result {
+
+        private final boolean ok;
+
+        private final String json;
+
+        Result(boolean ok, String json) {
+            this.ok = ok;
+            this.json = json;
+        }
+    }
+}
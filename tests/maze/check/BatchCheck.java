@@ -0,0 +1,64 @@
+/*
+ *  Checks that a batch keeps only a bounded number of mazes in memory
+ *  when the writer is slower than the generating threads: one maze per
+ *  thread, the full queue and the maze being written. Every maze must
+ *  still be saved and listed in the manifest.
+ *
+ *  The check is compiled together with the sources in src and started
+ *  from this class. It prints one line per batch and exits with 1 if a
+ *  batch goes over the bound or loses a maze.
+ */
+package maze.check;
+
+import maze.batch.BatchFormat;
+import maze.batch.BatchGenerator;
+import maze.batch.BatchSpec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+public class BatchCheck {
+
+    //Number of mazes in every batch
+    private static final int COUNT = 3000;
+
+    //Threads and queue capacities of the batches which are tried
+    private static final int[][] SETTINGS = {{2, 2}, {4, 1}, {1, 8}};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var failures = 0;
+        for (var setting : SETTINGS) {
+            var threads = setting[0];
+            var capacity = setting[1];
+            var directory = Files.createTempDirectory("maze-batch-check");
+            var spec = new BatchSpec(COUNT, 101, 151, 1, directory)
+                .withFormat(BatchFormat.TEXT)
+                .withThreads(threads)
+                .withQueueCapacity(capacity);
+            var report = new BatchGenerator(spec).run();
+            var bound = threads + capacity + 1;
+            var lines = Files.readAllLines(directory.resolve(BatchGenerator.MANIFEST)).size() - 1;
+            String error = null;
+            if (report.getPeakInFlight() > bound)
+                error = report.getPeakInFlight() + " mazes in memory, more than " + bound;
+            else if (report.getSaved() != COUNT || !report.getFailures().isEmpty() || lines != COUNT)
+                error = "saved " + report.getSaved() + " mazes and listed " + lines + " of " + COUNT;
+            System.out.println("threads " + threads + ", queue " + capacity + ": "
+                               + (error == null ? "ok, at most " + report.getPeakInFlight() + " mazes" : error));
+            if (error != null)
+                failures++;
+            delete(directory);
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    //Deletes the directory with the saved mazes
+    private static void delete(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (var file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+}
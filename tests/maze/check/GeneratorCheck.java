@@ -0,0 +1,163 @@
+/*
+ *  Checks that every generator carves a perfect maze: the border is
+ *  walled except for the entrance and the exit, all the passage cells are
+ *  connected, and there are no cycles, which for connected cells means
+ *  one passage fewer between neighbors than passage cells. Odd and even
+ *  sizes from the smallest maze up are tried with many seeds.
+ *
+ *  The check is compiled together with the sources in src and started
+ *  from this class. It prints one line per generator and exits with 1
+ *  if any maze is not perfect.
+ */
+package maze.check;
+
+import maze.algo.generation.BacktrackerGenerator;
+import maze.algo.generation.BinaryTreeGenerator;
+import maze.algo.generation.EllerGenerator;
+import maze.algo.generation.PassageTree;
+import maze.algo.generation.PrimGenerator;
+import maze.algo.generation.SidewinderGenerator;
+import maze.algo.generation.TiledPassageTree;
+import maze.algo.generation.WilsonGenerator;
+import maze.io.TextRowSink;
+import maze.model.Grid;
+import maze.model.Maze;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class GeneratorCheck {
+
+    //Number of random sizes tried with every generator
+    private static final int SIZES = 300;
+
+    //Largest height and width of the random sizes
+    private static final int MAX_SIZE = 80;
+
+    //Moves in all directions from a cell
+    private static final int[][] DELTAS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+
+    //Creates the maze of the given size and seed with one generator
+    private interface Factory {
+        Maze create(int height, int width, long seed);
+    }
+
+    public static void main(String[] args) {
+        var failures = 0;
+        for (var entry : factories().entrySet()) {
+            var error = check(entry.getValue());
+            System.out.println(entry.getKey() + ": " + (error == null ? "ok" : error));
+            if (error != null)
+                failures++;
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    //Return every generator by its name
+    private static Map<String, Factory> factories() {
+        var factories = new LinkedHashMap<String, Factory>();
+        factories.put("PassageTree", (h, w, seed) -> new Maze(h, w, new PassageTree(h, w, seed)));
+        factories.put("TiledPassageTree", (h, w, seed) -> new Maze(h, w, new TiledPassageTree(h, w, seed, 7)));
+        factories.put("BacktrackerGenerator", (h, w, seed) -> new Maze(h, w, new BacktrackerGenerator(h, w, seed)));
+        factories.put("PrimGenerator", (h, w, seed) -> new Maze(h, w, new PrimGenerator(h, w, seed)));
+        factories.put("WilsonGenerator", (h, w, seed) -> new Maze(h, w, new WilsonGenerator(h, w, seed)));
+        factories.put("BinaryTreeGenerator", (h, w, seed) -> new Maze(h, w, new BinaryTreeGenerator(h, w, seed)));
+        factories.put("SidewinderGenerator", (h, w, seed) -> new Maze(h, w, new SidewinderGenerator(h, w, seed)));
+        factories.put("EllerGenerator", GeneratorCheck::eller);
+        return factories;
+    }
+
+    //Writes a maze with Eller's algorithm as text and reads it back
+    private static Maze eller(int height, int width, long seed) {
+        try {
+            var out = new StringWriter();
+            new EllerGenerator(height, width, seed).generate(new TextRowSink(out));
+            return Maze.load(out.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Return the first problem found in the mazes of the generator or null if there is none
+    private static String check(Factory factory) {
+        var random = new SplittableRandom(1);
+        for (int i = 0; i < SIZES; i++) {
+            var height = i < 4 ? 3 + i / 2 : 3 + random.nextInt(MAX_SIZE);
+            var width = i < 4 ? 3 + i % 2 : 3 + random.nextInt(MAX_SIZE);
+            var seed = random.nextLong();
+            var error = checkMaze(factory.create(height, width, seed).getGrid());
+            if (error != null)
+                return height + "x" + width + " seed " + seed + ": " + error;
+        }
+        return null;
+    }
+
+    //Return what is wrong with the maze or null if it is perfect
+    private static String checkMaze(Grid grid) {
+        var height = grid.getHeight();
+        var width = grid.getWidth();
+        var exitColumn = width - 3 + width % 2;
+        for (int j = 0; j < width; j++) {
+            if (grid.isWall(0, j) == (j == 1))
+                return "the top border is wrong at column " + j;
+            if (grid.isWall(height - 1, j) == (j == exitColumn))
+                return "the bottom border is wrong at column " + j;
+        }
+        for (int i = 0; i < height; i++) {
+            if (!grid.isWall(i, 0) || !grid.isWall(i, width - 1))
+                return "the side border is open at row " + i;
+        }
+        var cells = 0L;
+        var passages = 0L;
+        var first = -1;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (grid.isWall(i, j))
+                    continue;
+                cells++;
+                if (first < 0)
+                    first = i * width + j;
+                if (j + 1 < width && !grid.isWall(i, j + 1))
+                    passages++;
+                if (i + 1 < height && !grid.isWall(i + 1, j))
+                    passages++;
+            }
+        }
+        if (countReachable(grid, first) != cells)
+            return "some passage cells are not connected";
+        if (passages != cells - 1)
+            return "the passages have a cycle";
+        return null;
+    }
+
+    //Return the number of passage cells reachable from the cell
+    private static long countReachable(Grid grid, int start) {
+        var height = grid.getHeight();
+        var width = grid.getWidth();
+        var seen = new boolean[height * width];
+        var stack = new int[height * width];
+        var count = 0;
+        var reached = 0L;
+        stack[count++] = start;
+        seen[start] = true;
+        while (count > 0) {
+            var cell = stack[--count];
+            reached++;
+            var row = cell / width;
+            var column = cell % width;
+            for (var delta : DELTAS) {
+                var r = row + delta[0];
+                var c = column + delta[1];
+                if (r < 0 || r >= height || c < 0 || c >= width || grid.isWall(r, c) || seen[r * width + c])
+                    continue;
+                seen[r * width + c] = true;
+                stack[count++] = r * width + c;
+            }
+        }
+        return reached;
+    }
+}
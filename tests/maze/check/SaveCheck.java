@@ -0,0 +1,94 @@
+/*
+ *  Checks that a maze loaded from a file can be saved back to the same
+ *  file. A binary file without compression stays mapped into memory by
+ *  the loaded maze, so the file must be replaced rather than rewritten
+ *  in place. Every form is loaded, saved over itself with its distances
+ *  and loaded again, and both the old and the new maze must still be
+ *  readable and equal to the original.
+ *
+ *  The check is compiled together with the sources in src and started
+ *  from this class. It prints one line per form and exits with 1 if any
+ *  maze is lost.
+ */
+package maze.check;
+
+import maze.io.BinaryFormat;
+import maze.io.DistanceFieldFormat;
+import maze.io.MazeFiles;
+import maze.model.Maze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class SaveCheck {
+
+    //Size of the mazes, large enough to span several pages of a mapping
+    private static final int SIZE = 301;
+
+    //Seed of the mazes
+    private static final long SEED = 7;
+
+    //Writes the maze to the file in one of the forms
+    private interface Writer {
+        void write(Maze maze, Path path) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var directory = Files.createTempDirectory("maze-save-check");
+        var failures = 0;
+        for (var entry : writers().entrySet()) {
+            String error;
+            try {
+                error = check(directory.resolve("maze-" + entry.getKey()), entry.getValue());
+            } catch (IOException | RuntimeException | InternalError e) {
+                error = String.valueOf(e);
+            }
+            System.out.println(entry.getKey() + ": " + (error == null ? "ok" : error));
+            if (error != null)
+                failures++;
+        }
+        try (var files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator)
+                Files.delete(file);
+        }
+        Files.delete(directory);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    //Return every form of the maze file by its name
+    private static Map<String, Writer> writers() {
+        var writers = new LinkedHashMap<String, Writer>();
+        writers.put("binary", BinaryFormat::write);
+        writers.put("seed", BinaryFormat::writeSeed);
+        writers.put("text", (maze, path) -> Files.writeString(path, maze.export(), UTF_8));
+        return writers;
+    }
+
+    //Return the first problem found when the file is saved over itself or null if there is none
+    private static String check(Path path, Writer writer) throws IOException {
+        var original = new Maze(SIZE, SIZE, SEED);
+        writer.write(original, path);
+        var loaded = MazeFiles.load(path);
+        var length = loaded.solve().getLength();
+        loaded.getDistanceField();
+        writer.write(loaded, path);
+        DistanceFieldFormat.write(loaded, path);
+        if (!loaded.export().equals(original.export()))
+            return "the loaded maze changed when it was saved";
+        if (loaded.solve(1, (SIZE - 1) * SIZE + SIZE - 2).getLength() != length)
+            return "the loaded maze cannot be solved after it was saved";
+        var reloaded = MazeFiles.load(path);
+        if (!reloaded.export().equals(original.export()))
+            return "the saved maze differs from the original";
+        if (!reloaded.hasDistanceField())
+            return "the saved distances were not used";
+        if (reloaded.solve().getLength() != length)
+            return "the saved maze has another escape";
+        return null;
+    }
+}